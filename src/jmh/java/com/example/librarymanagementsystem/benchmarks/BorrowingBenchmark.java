@@ -0,0 +1,80 @@
+package com.example.librarymanagementsystem.benchmarks;
+
+import com.example.librarymanagementsystem.LibraryManagementSystemApplication;
+import com.example.librarymanagementsystem.models.Book;
+import com.example.librarymanagementsystem.models.BorrowingRecord;
+import com.example.librarymanagementsystem.models.Patron;
+import com.example.librarymanagementsystem.models.Role;
+import com.example.librarymanagementsystem.repositories.PatronRepository;
+import com.example.librarymanagementsystem.services.BookBorrowingService;
+import com.example.librarymanagementsystem.services.BookService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+// One borrow followed by the matching return through the real services, transactions and
+// repositories, on an in-memory H2 database in PostgreSQL mode.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BorrowingBenchmark {
+
+    // Closed loans of the same book and patron already in borrowing_record; the cost of a
+    // borrow and return should not depend on it.
+    @Param({"0", "100000"})
+    public int historySize;
+
+    private ConfigurableApplicationContext context;
+    private BookBorrowingService borrowingService;
+    private Long bookId;
+    private Long patronId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(LibraryManagementSystemApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:benchmark;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop");
+        borrowingService = context.getBean(BookBorrowingService.class);
+
+        bookId = context.getBean(BookService.class)
+                .save(Book.builder().title("Benchmark").author("JMH").build())
+                .getId();
+        patronId = context.getBean(PatronRepository.class)
+                .save(Patron.builder().firstname("Bench").lastname("Mark").email("bench@example.com")
+                        .password("x").role(Role.USER).build())
+                .getId();
+        // Negative ids keep clear of the ids the sequence hands out.
+        context.getBean(JdbcTemplate.class).update(
+                "INSERT INTO borrowing_record (id, book_id, patron_id, borrowing_date, return_date) "
+                        + "SELECT -X, ?, ?, NOW(), NOW() FROM SYSTEM_RANGE(1, ?)",
+                bookId, patronId, historySize);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public BorrowingRecord borrowAndReturn() {
+        borrowingService.borrowBook(bookId, patronId);
+        return borrowingService.returnBook(bookId, patronId);
+    }
+}
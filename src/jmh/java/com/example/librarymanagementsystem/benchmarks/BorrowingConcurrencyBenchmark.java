@@ -0,0 +1,114 @@
+package com.example.librarymanagementsystem.benchmarks;
+
+import com.example.librarymanagementsystem.Dto.RegisterRequest;
+import com.example.librarymanagementsystem.LibraryManagementSystemApplication;
+import com.example.librarymanagementsystem.models.Book;
+import com.example.librarymanagementsystem.repositories.PatronRepository;
+import com.example.librarymanagementsystem.services.BookService;
+import com.example.librarymanagementsystem.services.PatronService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+// `concurrency` clients each borrowing and returning a different book over HTTP at the same time,
+// against the application running on platform threads (Tomcat's pool of 200) or on virtual threads.
+// One operation is a whole round; throughput in loans per second is concurrency / score. A round
+// with any failed request fails the benchmark, so the highest concurrency that completes is the
+// maximum sustainable one in that mode.
+//
+// virtualThreads=true needs Java 21: ./mvnw -Pjmh,java21 test-compile exec:exec -Djmh.args="BorrowingConcurrency"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BorrowingConcurrencyBenchmark {
+
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    @Param({"50", "200", "1000"})
+    public int concurrency;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest[] borrowRequests;
+    private HttpRequest[] returnRequests;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if (virtualThreads && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("Virtual threads need Java 21; run with -Pjmh,java21 on a JDK 21");
+        }
+        context = new SpringApplicationBuilder(LibraryManagementSystemApplication.class)
+                .profiles("h2")
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtualThreads);
+        URI target = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port"));
+
+        String token = context.getBean(PatronService.class)
+                .register(RegisterRequest.builder().firstname("Bench").lastname("Mark")
+                        .email("concurrency@example.com").password("x").build())
+                .getToken();
+        Long patronId = context.getBean(PatronRepository.class)
+                .findByEmail("concurrency@example.com").orElseThrow().getId();
+
+        BookService bookService = context.getBean(BookService.class);
+        borrowRequests = new HttpRequest[concurrency];
+        returnRequests = new HttpRequest[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            // One copy each (the default), so every client needs its own book.
+            Long bookId = bookService.save(Book.builder().title("Benchmark " + i).author("JMH").build()).getId();
+            URI borrow = target.resolve("/api/borrow/" + bookId + "/patron/" + patronId);
+            URI giveBack = target.resolve("/api/return/" + bookId + "/patron/" + patronId);
+            borrowRequests[i] = HttpRequest.newBuilder(borrow).header("Authorization", "Bearer " + token)
+                    .timeout(Duration.ofSeconds(30)).POST(HttpRequest.BodyPublishers.noBody()).build();
+            returnRequests[i] = HttpRequest.newBuilder(giveBack).header("Authorization", "Bearer " + token)
+                    .timeout(Duration.ofSeconds(30)).method("PATCH", HttpRequest.BodyPublishers.noBody()).build();
+        }
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int borrowAndReturnRound() {
+        CompletableFuture<?>[] loans = new CompletableFuture<?>[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            HttpRequest giveBack = returnRequests[i];
+            loans[i] = client.sendAsync(borrowRequests[i], HttpResponse.BodyHandlers.discarding())
+                    .thenCompose(response -> {
+                        expect(response, 201);
+                        return client.sendAsync(giveBack, HttpResponse.BodyHandlers.discarding());
+                    })
+                    .thenAccept(response -> expect(response, 200));
+        }
+        CompletableFuture.allOf(loans).join();
+        return concurrency;
+    }
+
+    private static void expect(HttpResponse<?> response, int status) {
+        if (response.statusCode() != status) {
+            throw new IllegalStateException(response.request().method() + " " + response.request().uri()
+                    + " answered " + response.statusCode());
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.librarymanagementsystem.benchmarks;
+
+import com.example.librarymanagementsystem.config.JwtAuthenticationFilter;
+import com.example.librarymanagementsystem.config.JwtService;
+import com.example.librarymanagementsystem.models.Patron;
+import com.example.librarymanagementsystem.models.Role;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.http.HttpHeaders.AUTHORIZATION;
+
+// Full filter pass for one authenticated request, up to the point the security context is set.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtAuthenticationFilterBenchmark {
+
+    // 0 verifies the signature on every request; otherwise a repeated token is served from the claims cache.
+    @Param({"0", "10000"})
+    public long claimsCacheSize;
+
+    private JwtAuthenticationFilter filter;
+    private String authorization;
+
+    @Setup
+    public void setUp() {
+        JwtService jwtService = new JwtService(claimsCacheSize);
+        Patron patron = Patron.builder().id(1L).email("bench@example.com").password("x").role(Role.USER).build();
+        authorization = "Bearer " + jwtService.generateToken(patron);
+        // Only consulted for tokens without the patron claims, which generateToken always adds.
+        filter = new JwtAuthenticationFilter(jwtService, username -> patron);
+    }
+
+    @Benchmark
+    public Authentication authenticatedRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/books/1");
+        request.setServletPath("/api/books/1");
+        request.addHeader(AUTHORIZATION, authorization);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
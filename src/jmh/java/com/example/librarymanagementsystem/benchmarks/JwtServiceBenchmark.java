@@ -0,0 +1,83 @@
+package com.example.librarymanagementsystem.benchmarks;
+
+import com.example.librarymanagementsystem.config.JwtService;
+import com.example.librarymanagementsystem.models.Patron;
+import com.example.librarymanagementsystem.models.Role;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+// Cost of the token checks JwtAuthenticationFilter performs for one authenticated request.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET_KEY = "8D1186CDC79B92B6FD51D3B919D9C815024A27B90785D8BCFC9D9C14267BF1E7";
+
+    private JwtService cachedJwtService;
+    private JwtService uncachedJwtService;
+    private Patron patron;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        cachedJwtService = new JwtService(10_000);
+        uncachedJwtService = new JwtService(0);
+        patron = Patron.builder().id(1L).email("bench@example.com").password("x").role(Role.USER).build();
+        token = cachedJwtService.generateToken(patron);
+    }
+
+    // Issued on register and authenticate.
+    @Benchmark
+    public String generateToken() {
+        return uncachedJwtService.generateToken(patron);
+    }
+
+    // Signature verification and claims parsing alone.
+    @Benchmark
+    public Claims extractAllClaims() {
+        return uncachedJwtService.extractAllClaims(token);
+    }
+
+    // What every request used to do: extractUsername, then isTokenValid (username and expiration),
+    // each decoding the key, building a parser and verifying the signature.
+    @Benchmark
+    public boolean legacyPerRequest() {
+        String username = legacyExtractAllClaims(token).getSubject();
+        boolean valid = legacyExtractAllClaims(token).getSubject().equals(patron.getUsername())
+                && !legacyExtractAllClaims(token).getExpiration().before(new Date());
+        return username != null && valid;
+    }
+
+    // One verification per request with the shared key and parser (first sight of a token).
+    @Benchmark
+    public boolean perRequestUncached() {
+        Claims claims = uncachedJwtService.extractAllClaims(token);
+        return claims.getSubject() != null && uncachedJwtService.isTokenValid(claims, patron);
+    }
+
+    // Repeated requests with the same bearer token: served from the verified-claims cache.
+    @Benchmark
+    public boolean perRequestCached() {
+        Claims claims = cachedJwtService.extractAllClaims(token);
+        return claims.getSubject() != null && cachedJwtService.isTokenValid(claims, patron);
+    }
+
+    private static Claims legacyExtractAllClaims(String token) {
+        Key key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET_KEY));
+        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.librarymanagementsystem.benchmarks;
+
+import com.example.librarymanagementsystem.logging.LogExecution;
+import com.example.librarymanagementsystem.logging.LoggingAspect;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.util.concurrent.TimeUnit;
+
+// Overhead @LogExecution adds to every controller call: the same method called directly and
+// through a Spring AOP proxy carrying LoggingAspect, which logs and records a latency histogram.
+// Its INFO events are created but discarded (see logback-test.xml), so the numbers leave out appender I/O.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LoggingAspectBenchmark {
+
+    private Target direct;
+    private Target advised;
+    private int value;
+
+    @Setup
+    public void setUp() {
+        direct = new Target();
+        AspectJProxyFactory factory = new AspectJProxyFactory(new Target());
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new LoggingAspect(new SimpleMeterRegistry(), new StandardEnvironment()));
+        advised = factory.getProxy();
+    }
+
+    @Benchmark
+    public int direct() {
+        return direct.handle(value++);
+    }
+
+    @Benchmark
+    public int advised() {
+        return advised.handle(value++);
+    }
+
+    public static class Target {
+        @LogExecution
+        public int handle(int value) {
+            return value + 1;
+        }
+    }
+}
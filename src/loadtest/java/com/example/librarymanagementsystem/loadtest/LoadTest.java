@@ -0,0 +1,369 @@
+package com.example.librarymanagementsystem.loadtest;
+
+import com.example.librarymanagementsystem.Dto.AuthenticationRequest;
+import com.example.librarymanagementsystem.Dto.AuthenticationResponse;
+import com.example.librarymanagementsystem.Dto.BookImportReportDto;
+import com.example.librarymanagementsystem.Dto.RegisterRequest;
+import com.example.librarymanagementsystem.LibraryManagementSystemApplication;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+// Open-loop HTTP load generator for the REST API.
+//
+// Requests are issued at a fixed rate whatever the response times are, and each latency is measured
+// from the moment the request was due rather than when it was actually sent, so a stalled server shows
+// up in the percentiles instead of silently lowering the request rate (coordinated omission).
+//
+// Usage: ./mvnw -Ploadtest test-compile exec:exec -Dloadtest.args="--rate=200 --duration=60"
+// Options are described in LoadTestOptions.
+public class LoadTest {
+
+    private static final String PASSWORD = "load-test-password";
+    private static final int IMPORT_CHUNK = 10_000;
+    private static final int PAGE_SIZE = 20;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    // Book titles are made of these, so every search term matches a fair share of the catalog.
+    private static final String[] WORDS = {
+            "river", "shadow", "garden", "winter", "silent", "empire", "glass", "harbor", "forest", "storm",
+            "letters", "midnight", "stone", "summer", "secret", "machine", "island", "crown", "memory", "light"
+    };
+
+    private final LoadTestOptions options;
+    private final URI target;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+    private final Semaphore inFlight;
+    private final List<Patron> patrons = new ArrayList<>();
+    private final Queue<Loan> loans = new ConcurrentLinkedQueue<>();
+    private final Operation[] mixOperations;
+    private final int[] mixCumulativeWeights;
+    private long[] bookIds;
+
+    private record Patron(long id, String email, String token) {
+    }
+
+    private record Loan(long bookId, Patron patron) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        ConfigurableApplicationContext context = null;
+        String target = options.target();
+        if (target == null) {
+            System.out.println("Starting the application with the h2 profile");
+            context = new SpringApplicationBuilder(LibraryManagementSystemApplication.class)
+                    .profiles("h2")
+                    .run("--server.port=0", "--logging.level.root=WARN", "--logging.level.com.example=WARN");
+            target = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        }
+        try {
+            new LoadTest(options, URI.create(target)).run();
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    public LoadTest(LoadTestOptions options, URI target) {
+        this.options = options;
+        this.target = target;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        this.inFlight = new Semaphore(options.maxInFlight());
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new OperationStats(operation));
+        }
+
+        mixOperations = options.mix().keySet().toArray(new Operation[0]);
+        mixCumulativeWeights = new int[mixOperations.length];
+        int total = 0;
+        for (int i = 0; i < mixOperations.length; i++) {
+            total += options.mix().get(mixOperations[i]);
+            mixCumulativeWeights[i] = total;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("mix must contain at least one positive weight");
+        }
+    }
+
+    public void run() throws IOException, InterruptedException {
+        Path reportDirectory = options.reportDirectory()
+                .resolve(LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")));
+
+        long seedStart = System.nanoTime();
+        seedPatrons();
+        seedBooks();
+        bookIds = fetchBookIds();
+        if (bookIds.length == 0) {
+            throw new IllegalStateException("No books to run against");
+        }
+        Duration seedElapsed = Duration.ofNanos(System.nanoTime() - seedStart);
+        System.out.printf("Seeded %d patrons and %d books (%d in total) in %d s%n",
+                patrons.size(), options.books(), bookIds.length, seedElapsed.toSeconds());
+        LoadTestReport seedReport = new LoadTestReport(
+                List.of(stats.get(Operation.REGISTER).snapshot()), seedElapsed, options);
+        seedReport.write(reportDirectory.resolve("seed"));
+
+        System.out.printf("Warming up for %d s at %d requests/s against %s%n",
+                options.warmup().toSeconds(), options.rate(), target);
+        runPhase(options.warmup());
+        stats.values().forEach(OperationStats::reset);
+
+        System.out.printf("Measuring for %d s%n", options.duration().toSeconds());
+        long start = System.nanoTime();
+        runPhase(options.duration());
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        List<OperationStats.Snapshot> snapshots = new ArrayList<>();
+        for (OperationStats operationStats : stats.values()) {
+            if (operationStats.operation().isWorkload()) {
+                snapshots.add(operationStats.snapshot());
+            }
+        }
+        LoadTestReport report = new LoadTestReport(snapshots, elapsed, options);
+        report.write(reportDirectory);
+        report.printSummary(System.out);
+        System.out.println("Reports written to " + reportDirectory.toAbsolutePath());
+    }
+
+    // Patrons are registered one after another; the register latencies end up in the seed report.
+    private void seedPatrons() throws IOException, InterruptedException {
+        String runId = Long.toString(System.currentTimeMillis(), 36);
+        OperationStats registerStats = stats.get(Operation.REGISTER);
+        for (int i = 0; i < options.patrons(); i++) {
+            String email = "loadtest-" + runId + "-" + i + "@example.com";
+            RegisterRequest register = RegisterRequest.builder()
+                    .firstname("Load")
+                    .lastname("Test " + i)
+                    .email(email)
+                    .password(PASSWORD)
+                    .build();
+            long start = System.nanoTime();
+            HttpResponse<String> response = client.send(
+                    jsonRequest("/api/patrons/register", null, register).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            registerStats.record(System.nanoTime() - start, response.statusCode());
+            expectOk(response, "register " + email);
+
+            String token = objectMapper.readValue(response.body(), AuthenticationResponse.class).getToken();
+            patrons.add(new Patron(patronId(token), email, token));
+        }
+    }
+
+    // The patron id is needed for the borrow and return URLs; it is carried by the token (claim "pid").
+    private long patronId(String token) throws IOException {
+        String payload = token.split("\\.")[1];
+        JsonNode claims = objectMapper.readTree(Base64.getUrlDecoder().decode(payload));
+        JsonNode id = claims.get("pid");
+        if (id == null) {
+            throw new IllegalStateException("Token has no pid claim");
+        }
+        return id.asLong();
+    }
+
+    private void seedBooks() throws IOException, InterruptedException {
+        // Random ISBN range so that repeated runs against the same --target do not collide.
+        long isbnBase = ThreadLocalRandom.current().nextLong(1_000_000_000L - options.books());
+        String token = patrons.get(0).token();
+        for (int from = 0; from < options.books(); from += IMPORT_CHUNK) {
+            int to = Math.min(from + IMPORT_CHUNK, options.books());
+            StringBuilder csv = new StringBuilder("title,author,isbn,publication_year,copies\n");
+            for (int i = from; i < to; i++) {
+                csv.append(WORDS[i % WORDS.length]).append(' ')
+                        .append(WORDS[(i / WORDS.length) % WORDS.length]).append(' ').append(i).append(',')
+                        .append("Author ").append(i % 1000).append(',')
+                        .append(isbn13(isbnBase + i)).append(',')
+                        .append(1900 + i % 125).append(',')
+                        .append(options.copies()).append('\n');
+            }
+            HttpRequest request = request("/api/books/import", token)
+                    .header("Content-Type", "text/csv")
+                    .POST(HttpRequest.BodyPublishers.ofString(csv.toString()))
+                    .build();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            expectOk(response, "import books");
+            BookImportReportDto report = objectMapper.readValue(response.body(), BookImportReportDto.class);
+            if (report.getRejected() > 0) {
+                System.out.printf("%d of %d books were rejected, e.g. %s%n",
+                        report.getRejected(), to - from, report.getErrors().get(0).getMessage());
+            }
+        }
+    }
+
+    // "979" + nine digits + check digit, a valid ISBN-13 that no real book uses in practice.
+    private static String isbn13(long n) {
+        String body = "979" + String.format("%09d", n);
+        int sum = 0;
+        for (int i = 0; i < 12; i++) {
+            sum += (i % 2 == 0 ? 1 : 3) * (body.charAt(i) - '0');
+        }
+        return body + (10 - sum % 10) % 10;
+    }
+
+    private long[] fetchBookIds() throws IOException, InterruptedException {
+        HttpResponse<Stream<String>> response = client.send(
+                request("/api/books/export", patrons.get(0).token()).GET().build(),
+                HttpResponse.BodyHandlers.ofLines());
+        if (response.statusCode() != 200) {
+            response.body().close();
+            throw new IllegalStateException("export books failed with status " + response.statusCode());
+        }
+        try (Stream<String> lines = response.body()) {
+            return lines.filter(line -> !line.isBlank())
+                    .mapToLong(line -> readTree(line).get("id").asLong())
+                    .toArray();
+        }
+    }
+
+    private JsonNode readTree(String json) {
+        try {
+            return objectMapper.readTree(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Malformed export line: " + json, e);
+        }
+    }
+
+    // Issues requests at options.rate() until the phase is over, then waits for the ones still in flight.
+    private void runPhase(Duration length) {
+        long start = System.nanoTime();
+        long end = start + length.toNanos();
+        for (long i = 0; ; i++) {
+            long intendedStart = start + i * 1_000_000_000L / options.rate();
+            if (intendedStart >= end) {
+                break;
+            }
+            long wait;
+            while ((wait = intendedStart - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            issue(nextOperation(), intendedStart);
+        }
+        inFlight.acquireUninterruptibly(options.maxInFlight());
+        inFlight.release(options.maxInFlight());
+    }
+
+    private Operation nextOperation() {
+        int pick = ThreadLocalRandom.current().nextInt(mixCumulativeWeights[mixCumulativeWeights.length - 1]);
+        for (int i = 0; i < mixCumulativeWeights.length; i++) {
+            if (pick < mixCumulativeWeights[i]) {
+                return mixOperations[i];
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    private void issue(Operation operation, long intendedStart) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Patron patron = patrons.get(random.nextInt(patrons.size()));
+        long bookId = bookIds[random.nextInt(bookIds.length)];
+
+        // Returns need an open loan; while there is none, borrow instead so that the rate holds.
+        Loan loan = null;
+        if (operation == Operation.RETURN) {
+            loan = loans.poll();
+            if (loan == null) {
+                operation = Operation.BORROW;
+            } else {
+                patron = loan.patron();
+                bookId = loan.bookId();
+            }
+        }
+
+        HttpRequest request = switch (operation) {
+            case GET_BOOK -> request("/api/books/" + bookId, patron.token()).GET().build();
+            case LIST_BOOKS -> request("/api/books?limit=" + PAGE_SIZE + "&after=" + random.nextLong(bookId),
+                    patron.token()).GET().build();
+            case SEARCH_BOOKS -> request("/api/books/search?limit=" + PAGE_SIZE + "&q="
+                    + WORDS[random.nextInt(WORDS.length)], patron.token()).GET().build();
+            case BORROW -> request("/api/borrow/" + bookId + "/patron/" + patron.id(), patron.token())
+                    .POST(HttpRequest.BodyPublishers.noBody()).build();
+            case RETURN -> request("/api/return/" + bookId + "/patron/" + patron.id(), patron.token())
+                    .method("PATCH", HttpRequest.BodyPublishers.noBody()).build();
+            case AUTHENTICATE -> jsonRequest("/api/patrons/authenticate", null,
+                    AuthenticationRequest.builder().email(patron.email()).password(PASSWORD).build()).build();
+            case REGISTER -> throw new IllegalArgumentException("register is not part of the workload");
+        };
+
+        OperationStats operationStats = stats.get(operation);
+        if (!inFlight.tryAcquire()) {
+            operationStats.recordDropped();
+            if (loan != null) {
+                loans.add(loan);
+            }
+            return;
+        }
+
+        Operation issued = operation;
+        Loan returned = loan;
+        long borrowedBookId = bookId;
+        Patron borrower = patron;
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+            long latency = System.nanoTime() - intendedStart;
+            inFlight.release();
+            if (error != null) {
+                operationStats.recordFailure(latency);
+                if (returned != null) {
+                    loans.add(returned);
+                }
+                return;
+            }
+            operationStats.record(latency, response.statusCode());
+            if (issued == Operation.BORROW && response.statusCode() == 201) {
+                loans.add(new Loan(borrowedBookId, borrower));
+            }
+        });
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(target.resolve(path)).timeout(REQUEST_TIMEOUT);
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private HttpRequest.Builder jsonRequest(String path, String token, Object body) {
+        try {
+            return request(path, token)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    private static void expectOk(HttpResponse<String> response, String action) {
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(action + " failed with status " + response.statusCode()
+                    + ": " + response.body());
+        }
+    }
+}
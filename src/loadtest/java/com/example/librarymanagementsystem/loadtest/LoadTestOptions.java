@@ -0,0 +1,77 @@
+package com.example.librarymanagementsystem.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+// Command line options, given as --name=value. Every option has a default so a bare run works.
+public record LoadTestOptions(
+        // Base URL of a running instance; when absent the application is started in-process with the h2 profile.
+        String target,
+        // Requests per second issued during warmup and measurement, whatever the response times are.
+        int rate,
+        Duration warmup,
+        Duration duration,
+        // Books added through POST /api/books/import before the run, and copies of each.
+        int books,
+        int copies,
+        // Patrons registered before the run; each request is sent with the token of one of them.
+        int patrons,
+        Map<Operation, Integer> mix,
+        // Requests allowed in flight at once; requests beyond it are counted as dropped, not queued.
+        int maxInFlight,
+        Path reportDirectory) {
+
+    private static final String DEFAULT_MIX = "get=45,list=15,search=15,borrow=12,return=12,authenticate=1";
+
+    public static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        LoadTestOptions options = new LoadTestOptions(
+                values.remove("target"),
+                Integer.parseInt(take(values, "rate", "200")),
+                Duration.ofSeconds(Long.parseLong(take(values, "warmup", "10"))),
+                Duration.ofSeconds(Long.parseLong(take(values, "duration", "60"))),
+                Integer.parseInt(take(values, "books", "10000")),
+                Integer.parseInt(take(values, "copies", "5")),
+                Integer.parseInt(take(values, "patrons", "20")),
+                parseMix(take(values, "mix", DEFAULT_MIX)),
+                Integer.parseInt(take(values, "max-in-flight", "1000")),
+                Path.of(take(values, "report-dir", "target/loadtest")));
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options: " + values.keySet());
+        }
+        if (options.rate <= 0 || options.patrons <= 0) {
+            throw new IllegalArgumentException("rate and patrons must be positive");
+        }
+        return options;
+    }
+
+    private static String take(Map<String, String> values, String name, String defaultValue) {
+        String value = values.remove(name);
+        return value == null ? defaultValue : value;
+    }
+
+    // e.g. "get=45,list=15,borrow=20,return=20"; weights are relative and need not add up to 100.
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            Operation operation = Operation.fromName(parts[0]);
+            if (!operation.isWorkload()) {
+                throw new IllegalArgumentException(parts[0] + " is only measured while seeding");
+            }
+            weights.put(operation, Integer.parseInt(parts[1]));
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.librarymanagementsystem.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+
+// Writes one <operation>.hgrm percentile distribution per operation (plot with HdrHistogram's
+// HistogramPlotter) and a summary.txt with throughput and the usual percentiles in milliseconds.
+public class LoadTestReport {
+
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final List<OperationStats.Snapshot> snapshots;
+    private final Duration elapsed;
+    private final LoadTestOptions options;
+
+    public LoadTestReport(List<OperationStats.Snapshot> snapshots, Duration elapsed, LoadTestOptions options) {
+        this.snapshots = snapshots;
+        this.elapsed = elapsed;
+        this.options = options;
+    }
+
+    public void write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        for (OperationStats.Snapshot snapshot : snapshots) {
+            if (snapshot.histogram().getTotalCount() == 0) {
+                continue;
+            }
+            try (PrintStream out = new PrintStream(
+                    Files.newOutputStream(directory.resolve(snapshot.operation().shortName() + ".hgrm")))) {
+                snapshot.histogram().outputPercentileDistribution(out, MICROS_PER_MILLI);
+            }
+        }
+        try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve("summary.txt")))) {
+            printSummary(out);
+        }
+    }
+
+    public void printSummary(PrintStream out) {
+        double seconds = elapsed.toNanos() / 1e9;
+        out.printf(Locale.ROOT, "target rate %d/s, measured for %.1f s, %d books, %d patrons%n",
+                options.rate(), seconds, options.books(), options.patrons());
+        out.printf(Locale.ROOT, "%-13s %9s %8s %8s %8s %8s %9s %9s %9s %9s %9s %9s%n", "operation", "requests",
+                "req/s", "4xx", "5xx", "failed", "dropped", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+
+        Histogram total = null;
+        long requests = 0, clientErrors = 0, serverErrors = 0, failures = 0, dropped = 0;
+        for (OperationStats.Snapshot snapshot : snapshots) {
+            if (snapshot.requests() == 0 && snapshot.dropped() == 0) {
+                continue;
+            }
+            printRow(out, snapshot.operation().shortName(), snapshot.histogram(), snapshot.requests(), seconds,
+                    snapshot.clientErrors(), snapshot.serverErrors(), snapshot.failures(), snapshot.dropped());
+            if (total == null) {
+                total = snapshot.histogram().copy();
+            } else {
+                total.add(snapshot.histogram());
+            }
+            requests += snapshot.requests();
+            clientErrors += snapshot.clientErrors();
+            serverErrors += snapshot.serverErrors();
+            failures += snapshot.failures();
+            dropped += snapshot.dropped();
+        }
+        if (total != null) {
+            printRow(out, "all", total, requests, seconds, clientErrors, serverErrors, failures, dropped);
+        }
+    }
+
+    private static void printRow(PrintStream out, String name, Histogram histogram, long requests, double seconds,
+                                 long clientErrors, long serverErrors, long failures, long dropped) {
+        out.printf(Locale.ROOT, "%-13s %9d %8.1f %8d %8d %8d %9d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                name, requests, requests / seconds, clientErrors, serverErrors, failures, dropped,
+                millis(histogram, 50.0), millis(histogram, 90.0), millis(histogram, 99.0),
+                millis(histogram, 99.9), histogram.getMaxValue() / MICROS_PER_MILLI);
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.librarymanagementsystem.loadtest;
+
+import java.util.Locale;
+
+// Requests the load test measures; each gets its own latency histogram and report file.
+public enum Operation {
+    // Only issued while seeding patrons; too expensive (bcrypt plus an insert) to be part of the mix.
+    REGISTER("register"),
+    AUTHENTICATE("authenticate"),
+    GET_BOOK("get"),
+    LIST_BOOKS("list"),
+    SEARCH_BOOKS("search"),
+    BORROW("borrow"),
+    RETURN("return");
+
+    private final String shortName;
+
+    Operation(String shortName) {
+        this.shortName = shortName;
+    }
+
+    public String shortName() {
+        return shortName;
+    }
+
+    public boolean isWorkload() {
+        return this != REGISTER;
+    }
+
+    public static Operation fromName(String name) {
+        String normalized = name.trim().toLowerCase(Locale.ROOT);
+        for (Operation operation : values()) {
+            if (operation.shortName.equals(normalized)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation: " + name);
+    }
+}
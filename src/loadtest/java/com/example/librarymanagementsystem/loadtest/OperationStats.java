@@ -0,0 +1,80 @@
+package com.example.librarymanagementsystem.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Latencies (in microseconds) and outcome counts of one operation, safe to record from HttpClient threads.
+public class OperationStats {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final Operation operation;
+    private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder clientErrors = new LongAdder();
+    private final LongAdder serverErrors = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    public OperationStats(Operation operation) {
+        this.operation = operation;
+    }
+
+    public Operation operation() {
+        return operation;
+    }
+
+    public void record(long latencyNanos, int status) {
+        recordLatency(latencyNanos);
+        if (status < 400) {
+            successes.increment();
+        } else if (status < 500) {
+            clientErrors.increment();
+        } else {
+            serverErrors.increment();
+        }
+    }
+
+    // No response at all (connection refused, timeout, ...).
+    public void recordFailure(long latencyNanos) {
+        recordLatency(latencyNanos);
+        failures.increment();
+    }
+
+    // Not sent because too many requests were already in flight.
+    public void recordDropped() {
+        dropped.increment();
+    }
+
+    private void recordLatency(long latencyNanos) {
+        recorder.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), HIGHEST_TRACKABLE_MICROS));
+    }
+
+    // Discards everything recorded so far, e.g. at the end of the warmup.
+    public void reset() {
+        recorder.reset();
+        successes.reset();
+        clientErrors.reset();
+        serverErrors.reset();
+        failures.reset();
+        dropped.reset();
+    }
+
+    // Everything recorded since the last reset or snapshot.
+    public Snapshot snapshot() {
+        return new Snapshot(operation, recorder.getIntervalHistogram(), successes.sumThenReset(),
+                clientErrors.sumThenReset(), serverErrors.sumThenReset(), failures.sumThenReset(),
+                dropped.sumThenReset());
+    }
+
+    public record Snapshot(Operation operation, Histogram histogram, long successes, long clientErrors,
+                           long serverErrors, long failures, long dropped) {
+
+        public long requests() {
+            return successes + clientErrors + serverErrors + failures;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.librarymanagementsystem.Dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchItemResultDto {
+    private Long bookId;
+    private Long patronId;
+    // HTTP status the item would have had as a single request (201, 200, 400 or 404)
+    private int status;
+    private String message;
+    private Long recordId;
+}
@@ -0,0 +1,18 @@
+package com.example.librarymanagementsystem.Dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookAvailabilityDto {
+    private Long bookId;
+    private int totalCopies;
+    private int availableCopies;
+    private int onLoan;
+    private boolean available;
+}
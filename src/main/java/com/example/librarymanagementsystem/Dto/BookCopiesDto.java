@@ -0,0 +1,14 @@
+package com.example.librarymanagementsystem.Dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookCopiesDto {
+    private Integer totalCopies;
+}
@@ -0,0 +1,15 @@
+package com.example.librarymanagementsystem.Dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookImportErrorDto {
+    private long line;
+    private String message;
+}
@@ -0,0 +1,21 @@
+package com.example.librarymanagementsystem.Dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookImportReportDto {
+    private long imported;
+    private long rejected;
+    // Only the first errors are listed; `rejected` counts all of them.
+    @Builder.Default
+    private List<BookImportErrorDto> errors = new ArrayList<>();
+}
@@ -0,0 +1,19 @@
+package com.example.librarymanagementsystem.Dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookSearchHitDto {
+    private Long id;
+    private String title;
+    private String author;
+    private String isbn;
+    private Integer publicationYear;
+    private int score;
+}
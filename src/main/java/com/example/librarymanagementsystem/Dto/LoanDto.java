@@ -0,0 +1,20 @@
+package com.example.librarymanagementsystem.Dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class LoanDto {
+    private Long id;
+    private Long bookId;
+    private Long patronId;
+    private LocalDateTime borrowingDate;
+    private LocalDateTime returnDate;
+}
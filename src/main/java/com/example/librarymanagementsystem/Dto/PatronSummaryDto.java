@@ -0,0 +1,20 @@
+package com.example.librarymanagementsystem.Dto;
+
+import com.example.librarymanagementsystem.models.Role;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Directory entry for GET /api/patrons, selected column by column (no password hash, no entity).
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PatronSummaryDto {
+    private Long id;
+    private String firstname;
+    private String lastname;
+    private String email;
+    private Role role;
+}
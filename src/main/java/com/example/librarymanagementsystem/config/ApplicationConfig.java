@@ -1,36 +1,62 @@
 package com.example.librarymanagementsystem.config;
 
+import com.example.librarymanagementsystem.models.Patron;
 import com.example.librarymanagementsystem.repositories.PatronRepository;
 import lombok.RequiredArgsConstructor;
 import org.jetbrains.annotations.NotNull;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 
 @Configuration
 @RequiredArgsConstructor
 public class ApplicationConfig {
 
     private final PatronRepository repository;
+    private final ReadYourWritesGuard readYourWritesGuard;
 
+    @Value("${library.security.bcrypt.strength:10}")
+    private int bcryptStrength;
+
+    @Value("${library.security.password-hashing.threads:2}")
+    private int hashingThreads;
+
+    @Value("${library.security.password-hashing.queue-size:64}")
+    private int hashingQueueSize;
+
+    // Always read from the primary: a replica that lags behind would reject a patron who has just
+    // registered or changed their password.
     @Bean
     public UserDetailsService userDetailsService() {
-        return username -> repository.findByEmail(username)
+        return username -> readYourWritesGuard.onPrimary(() -> repository.findByEmail(username))
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
     }
 
+    // Hashes stored with a lower cost than library.security.bcrypt.strength are replaced on the next
+    // successful login; the password itself is unchanged, so issued tokens stay valid.
+    @Bean
+    public UserDetailsPasswordService userDetailsPasswordService() {
+        return (user, newPassword) -> {
+            Patron patron = (Patron) user;
+            patron.setPassword(newPassword);
+            return repository.save(patron);
+        };
+    }
+
     @Bean
     public AuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService());
         authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setUserDetailsPasswordService(userDetailsPasswordService());
         return authProvider;
     }
 
@@ -40,8 +66,8 @@ public class ApplicationConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder() {
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(bcryptStrength), hashingThreads, hashingQueueSize);
     }
 
 }
\ No newline at end of file
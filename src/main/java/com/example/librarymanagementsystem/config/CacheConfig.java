@@ -0,0 +1,65 @@
+package com.example.librarymanagementsystem.config;
+
+import com.github.benmanes.caffeine.jcache.CacheManagerImpl;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import java.net.URI;
+import java.util.Properties;
+
+// Caches are declared in application.properties (spring.cache.*) and backed by Caffeine. Puts and
+// evictions made inside a transaction are applied when it commits and dropped when it rolls back, so a
+// rolled back update never reaches the cache.
+//
+// Hibernate's second-level cache (Book, Patron and the findByEmail query) is a JCache cache manager,
+// also backed by Caffeine, whose regions are configured in hibernate-cache.conf.
+@Configuration
+@EnableCaching
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig {
+
+    public static final String BOOKS_CACHE = "books";
+
+    public static final String BOOK_REGION = "book";
+    public static final String PATRON_REGION = "patron";
+    public static final String PATRON_BY_EMAIL_REGION = "patron-by-email";
+
+    private static final URI SECOND_LEVEL_CACHE_CONFIG = URI.create("classpath:hibernate-cache.conf");
+
+    // Replaces Spring Boot's cache manager, which cannot be made transaction-aware, with the same
+    // Caffeine caches (spring.cache.cache-names, spring.cache.caffeine.spec).
+    @Bean
+    public org.springframework.cache.CacheManager cacheManager(CacheProperties cacheProperties) {
+        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager();
+        String spec = cacheProperties.getCaffeine().getSpec();
+        if (spec != null) {
+            caffeineCacheManager.setCacheSpecification(spec);
+        }
+        if (!cacheProperties.getCacheNames().isEmpty()) {
+            caffeineCacheManager.setCacheNames(cacheProperties.getCacheNames());
+        }
+        return new TransactionAwareCacheManagerProxy(caffeineCacheManager);
+    }
+
+    // Created directly rather than through javax.cache.Caching, which shares one manager per URI across
+    // the JVM: every application context (tests start several) gets regions of its own.
+    @Bean
+    public CacheManager secondLevelCacheManager() {
+        return new CacheManagerImpl(new CaffeineCachingProvider(), false, SECOND_LEVEL_CACHE_CONFIG,
+                CacheConfig.class.getClassLoader(), new Properties());
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+    }
+}
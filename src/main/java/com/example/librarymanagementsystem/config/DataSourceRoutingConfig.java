@@ -0,0 +1,80 @@
+package com.example.librarymanagementsystem.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+// Active only when library.datasource.replica.url is set; otherwise Spring Boot's single datasource
+// (spring.datasource.*) is used as before.
+//
+// The primary pool is configured by spring.datasource.* (and spring.datasource.hikari.*), the replica
+// pool by library.datasource.replica.* (and library.datasource.replica.hikari.*); the credentials and
+// driver default to the primary's. Both pools report their metrics under their pool names.
+@Configuration
+@ConditionalOnProperty(name = "library.datasource.replica.url")
+public class DataSourceRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("library.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(
+            @Value("${library.datasource.replica.url}") String url,
+            @Value("${library.datasource.replica.username:${spring.datasource.username:}}") String username,
+            @Value("${library.datasource.replica.password:${spring.datasource.password:}}") String password,
+            @Value("${library.datasource.replica.driver-class-name:${spring.datasource.driver-class-name:}}") String driverClassName) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        if (!driverClassName.isBlank()) {
+            dataSource.setDriverClassName(driverClassName);
+        }
+        dataSource.setReadOnly(true);
+        dataSource.setPoolName("replica");
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                 ReadYourWritesGuard guard) {
+        ReadWriteRoutingDataSource routingDataSource = new ReadWriteRoutingDataSource(guard);
+        routingDataSource.setTargetDataSources(Map.of(
+                ReadWriteRoutingDataSource.Route.PRIMARY, primaryDataSource,
+                ReadWriteRoutingDataSource.Route.REPLICA, replicaDataSource));
+        routingDataSource.setDefaultTargetDataSource(primaryDataSource);
+        routingDataSource.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    // Hibernate holds on to its connection until the session closes by default, and with
+    // open-in-view a session spans the whole request: a read-only transaction early in a request
+    // would leave a later write on the replica's connection. Releasing it after every transaction
+    // lets each transaction be routed on its own.
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionAfterTransaction() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+}
@@ -4,6 +4,7 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import io.jsonwebtoken.Claims;
 import lombok.RequiredArgsConstructor;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -15,6 +16,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import static org.springframework.http.HttpHeaders.AUTHORIZATION;
 import java.io.IOException;
+import java.util.Arrays;
 
 // The first thing that will intercept the user request is the JwtFilter.
 // JwtFilter will be active everytime the user sends a request.
@@ -27,6 +29,9 @@ import java.io.IOException;
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    // Reachable without a token; every other endpoint, including the rest of /api/patrons, needs one.
+    public static final String[] PUBLIC_PATHS = {"/api/patrons/register", "/api/patrons/authenticate"};
+
     private final JwtService jwtService;
     //Here we are going to create a class the implements the UserDetailsService
     //This class is going to be a managed bean and able to be injected
@@ -39,24 +44,30 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                     @NonNull HttpServletResponse response,
                                     @NonNull FilterChain filterChain)
         throws ServletException, IOException {
-        if (request.getServletPath().contains("/api/patrons")) {
+        if (Arrays.asList(PUBLIC_PATHS).contains(request.getServletPath())) {
             filterChain.doFilter(request, response);
             return;
         }
         final String authHeader = request.getHeader(AUTHORIZATION);
         final String jwt;
+        final Claims claims;
         final String userEmail;
         if (authHeader == null || !authHeader.startsWith("Bearer ")){
             filterChain.doFilter(request, response);
             return;
         }
         jwt = authHeader.substring(7);
-        userEmail = jwtService.extractUsername(jwt);
-        //First we need to check if the user is not authenticated yet. In addition, we need
-        //to check if the user already exists in the database or not.
+        //The token is verified once here; the claims are reused for the validity check below.
+        claims = jwtService.extractAllClaims(jwt);
+        userEmail = claims.getSubject();
+        //First we need to check if the user is not authenticated yet. The principal is built from the
+        //signed claims; only tokens issued without them need the patron to be loaded from the database.
         if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null){
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
-            if (jwtService.isTokenValid(jwt, userDetails)){
+            UserDetails userDetails = jwtService.extractPrincipal(claims);
+            if (userDetails == null) {
+                userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+            }
+            if (jwtService.isTokenValid(claims, userDetails)){
                 //the authToken is needed in able to update the security context
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
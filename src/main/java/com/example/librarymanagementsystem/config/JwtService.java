@@ -1,19 +1,25 @@
 package com.example.librarymanagementsystem.config;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.example.librarymanagementsystem.models.Patron;
+import com.example.librarymanagementsystem.models.Role;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
-import org.springframework.security.core.userdetails.User;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import java.security.Key;
-import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 // Service also is a managed bean
@@ -21,39 +27,110 @@ import java.util.function.Function;
 public class JwtService {
 
     private static final String SECRET_KEY = "8D1186CDC79B92B6FD51D3B919D9C815024A27B90785D8BCFC9D9C14267BF1E7";
+    private static final long TOKEN_VALIDITY_MILLIS = 1000 * 60 * 24;
+    private static final String PATRON_ID_CLAIM = "pid";
+    private static final String ROLE_CLAIM = "role";
+
+    // The key is derived once; the parser is immutable and thread-safe, so both are shared by all requests.
+    private final Key signInKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET_KEY));
+    private final JwtParser parser = Jwts.parserBuilder().setSigningKey(signInKey).build();
+
+    // Claims of tokens whose signature has already been verified, keyed by the raw token.
+    // Each entry expires together with its token, so an expired token is never served from here.
+    private final Cache<String, Claims> verifiedClaims;
+
+    // Patron id -> epoch second of the last revocation; tokens issued in or before that second are
+    // rejected (issued-at has second precision). Entries only need to outlive the tokens they revoke.
+    private final Cache<Long, Long> revokedBefore = Caffeine.newBuilder()
+            .expireAfterWrite(TOKEN_VALIDITY_MILLIS, TimeUnit.MILLISECONDS)
+            .build();
+
+    public JwtService(@Value("${library.security.jwt.claims-cache-size:10000}") long claimsCacheSize) {
+        this.verifiedClaims = claimsCacheSize > 0
+                ? Caffeine.newBuilder()
+                    .maximumSize(claimsCacheSize)
+                    .expireAfter(new TokenExpiry())
+                    .build()
+                : null;
+    }
+
     public String extractUsername(String token){
         return extractClaims(token, Claims::getSubject);
     }
     
+    // Tokens issued to patrons carry their id and role, so requests can be authenticated from the token alone.
     public String generateToken(UserDetails userDetails){
-        return generateToken(new HashMap<>(), userDetails);
+        Map<String, Object> claims = new HashMap<>();
+        if (userDetails instanceof Patron patron) {
+            claims.put(PATRON_ID_CLAIM, patron.getId());
+            claims.put(ROLE_CLAIM, patron.getRole().name());
+        }
+        return generateToken(claims, userDetails);
     }
 
     public String generateToken(
             Map<String, Object> extraClaims,
             UserDetails userDetails
     ){
+        long now = System.currentTimeMillis();
+        // A token issued in the same second as a revocation would be rejected along with the tokens it
+        // revoked, so it is dated the next second instead.
+        Object patronId = extraClaims.get(PATRON_ID_CLAIM);
+        Long revokedAt = patronId instanceof Long id ? revokedBefore.getIfPresent(id) : null;
+        if (revokedAt != null) {
+            now = Math.max(now, TimeUnit.SECONDS.toMillis(revokedAt + 1));
+        }
         return Jwts
                 .builder()
                 .setClaims(extraClaims)
                 .setSubject(userDetails.getUsername())
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 24))
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + TOKEN_VALIDITY_MILLIS))
+                .signWith(signInKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails){
-        final String username = extractUsername(token);
-        return username.equals(userDetails.getUsername()) && !isTokenExpired(token);
+        return isTokenValid(extractAllClaims(token), userDetails);
+    }
+
+    public boolean isTokenValid(Claims claims, UserDetails userDetails){
+        return claims.getSubject().equals(userDetails.getUsername())
+                && !isTokenExpired(claims)
+                && !isTokenRevoked(claims);
+    }
+
+    // Builds the authenticated principal from signed claims without loading the patron.
+    // Returns null for tokens issued before the claims were added; those fall back to a lookup.
+    // The role is the one the patron had when the token was issued and is not checked again: a role
+    // changed in the database only applies to new tokens unless revokeTokens is called for the patron.
+    public Patron extractPrincipal(Claims claims) {
+        Long patronId = claims.get(PATRON_ID_CLAIM, Long.class);
+        String role = claims.get(ROLE_CLAIM, String.class);
+        if (patronId == null || role == null) {
+            return null;
+        }
+        return Patron.builder()
+                .id(patronId)
+                .email(claims.getSubject())
+                .role(Role.valueOf(role))
+                .build();
+    }
+
+    // Called when a patron is deleted or changes their password: tokens issued so far stop working.
+    // Should also be called when a patron's role changes, see extractPrincipal.
+    public void revokeTokens(Long patronId) {
+        revokedBefore.put(patronId, System.currentTimeMillis() / 1000);
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    private boolean isTokenRevoked(Claims claims) {
+        Long patronId = claims.get(PATRON_ID_CLAIM, Long.class);
+        Long revokedAt = patronId == null ? null : revokedBefore.getIfPresent(patronId);
+        return revokedAt != null && claims.getIssuedAt().getTime() / 1000 <= revokedAt;
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaims(token, Claims::getExpiration);
+    private boolean isTokenExpired(Claims claims) {
+        return claims.getExpiration().before(new Date());
     }
 
     public <T> T extractClaims(String token, Function<Claims, T> claimsResolver){
@@ -61,17 +138,34 @@ public class JwtService {
         return claimsResolver.apply(claims);
     }
 
+    // Verifies the signature only the first time a token is seen; invalid tokens throw and are not cached.
     public Claims extractAllClaims(String token){
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        if (verifiedClaims == null) {
+            return parseClaims(token);
+        }
+        return verifiedClaims.get(token, this::parseClaims);
     }
 
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(SECRET_KEY);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private Claims parseClaims(String token) {
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    private static class TokenExpiry implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String token, Claims claims, long currentTime) {
+            long remainingMillis = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String token, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 }
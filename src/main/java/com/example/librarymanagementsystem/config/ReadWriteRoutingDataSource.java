@@ -0,0 +1,31 @@
+package com.example.librarymanagementsystem.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Sends the connections of read-only transactions (@Transactional(readOnly = true) services and
+// the read methods of Spring Data repositories) to the replica, and everything else to the primary.
+// The choice is made when the connection is first used, so this must sit behind a
+// LazyConnectionDataSourceProxy: the transaction manager asks for the connection before the
+// transaction is marked read-only.
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route {
+        PRIMARY, REPLICA
+    }
+
+    private final ReadYourWritesGuard guard;
+
+    public ReadWriteRoutingDataSource(ReadYourWritesGuard guard) {
+        this.guard = guard;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            guard.recordWriteOnCommit();
+            return Route.PRIMARY;
+        }
+        return guard.mustReadPrimary() ? Route.PRIMARY : Route.REPLICA;
+    }
+}
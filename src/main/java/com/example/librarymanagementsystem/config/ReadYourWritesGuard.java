@@ -0,0 +1,90 @@
+package com.example.librarymanagementsystem.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+// Decides when a read-only transaction must still go to the primary instead of the replica
+// (ReadWriteRoutingDataSource), because the replica may not have caught up yet:
+//  - for read-your-writes-ms after a user committed a write (a borrow, a return, a profile change),
+//    that user's reads stay on the primary, so they see their own changes right away
+//  - inside onPrimary, for lookups that must never be stale (login, the outbox relay)
+// The window should exceed the replica's usual replication lag. Does nothing without a replica.
+@Component
+public class ReadYourWritesGuard {
+
+    private static final ThreadLocal<Boolean> PRIMARY_ONLY = new ThreadLocal<>();
+
+    private final boolean enabled;
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWritesGuard(@Value("${library.datasource.replica.url:}") String replicaUrl,
+                               @Value("${library.datasource.replica.read-your-writes-ms:5000}") long windowMs,
+                               @Value("${library.datasource.replica.max-tracked-users:100000}") long maxTrackedUsers) {
+        this.enabled = !replicaUrl.isBlank();
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(windowMs))
+                .maximumSize(maxTrackedUsers)
+                .build();
+    }
+
+    // Pins the user's reads to the primary from now on, for the length of the window.
+    public void recordWrite(String username) {
+        if (enabled && username != null) {
+            recentWriters.put(username, Boolean.TRUE);
+        }
+    }
+
+    // Called for every write transaction: the current user is recorded once it commits. A rolled
+    // back transaction changed nothing, so it does not pin anyone.
+    public void recordWriteOnCommit() {
+        String username = currentUsername();
+        if (!enabled || username == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recordWrite(username);
+            }
+        });
+    }
+
+    public boolean mustReadPrimary() {
+        if (PRIMARY_ONLY.get() != null) {
+            return true;
+        }
+        String username = currentUsername();
+        return username != null && recentWriters.getIfPresent(username) != null;
+    }
+
+    // Runs the action with every read-only transaction it starts on the primary.
+    public <T> T onPrimary(Supplier<T> action) {
+        Boolean previous = PRIMARY_ONLY.get();
+        PRIMARY_ONLY.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY_ONLY.remove();
+            }
+        }
+    }
+
+    private static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
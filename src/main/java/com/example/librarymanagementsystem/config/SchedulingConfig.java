@@ -0,0 +1,10 @@
+package com.example.librarymanagementsystem.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Background jobs (@Scheduled), e.g. OverdueLoanScanner; schedules are set in application.properties.
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,5 +1,7 @@
 package com.example.librarymanagementsystem.config;
 
+import com.example.librarymanagementsystem.models.Role;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.Filter;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
@@ -31,8 +33,17 @@ public class SecurityConfiguration {
         http.csrf().disable();
         http.authorizeHttpRequests(
                 authorize -> authorize
-                        .requestMatchers("/api/patrons/**")
+                        // Streaming exports finish on an async dispatch of a request that was already authorized
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR)
                         .permitAll()
+                        .requestMatchers(JwtAuthenticationFilter.PUBLIC_PATHS)
+                        .permitAll()
+                        // Only health and prometheus are exposed (application.properties). Metrics name
+                        // every endpoint and its error rates, so the scraper needs an admin's token.
+                        .requestMatchers("/actuator/health")
+                        .permitAll()
+                        .requestMatchers("/actuator/prometheus")
+                        .hasAuthority(Role.ADMIN.name())
                         .anyRequest()
                         .authenticated());
         http.sessionManagement(
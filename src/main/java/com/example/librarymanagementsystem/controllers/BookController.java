@@ -1,20 +1,34 @@
 package com.example.librarymanagementsystem.controllers;
 
+import com.example.librarymanagementsystem.Dto.BookAvailabilityDto;
+import com.example.librarymanagementsystem.Dto.BookCopiesDto;
+import com.example.librarymanagementsystem.Dto.BookImportReportDto;
+import com.example.librarymanagementsystem.Dto.BookSearchHitDto;
 import com.example.librarymanagementsystem.Dto.BookUpdateDto;
+import com.example.librarymanagementsystem.Dto.CursorPageDto;
 import com.example.librarymanagementsystem.logging.LogExecution;
 import com.example.librarymanagementsystem.models.Book;
+import com.example.librarymanagementsystem.models.BookInventory;
 import com.example.librarymanagementsystem.models.Patron;
+import com.example.librarymanagementsystem.repositories.BookSort;
+import com.example.librarymanagementsystem.services.BookImportFormat;
+import com.example.librarymanagementsystem.services.BookImportService;
+import com.example.librarymanagementsystem.services.BookInventoryService;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import com.example.librarymanagementsystem.services.BookService;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.NoSuchElementException;
 
@@ -27,11 +41,41 @@ public class BookController {
     @Autowired
     private BookService bookService;
 
+    @Autowired
+    private BookImportService bookImportService;
+
+    @Autowired
+    private BookInventoryService bookInventoryService;
+
     @GetMapping
     @PreAuthorize("hasAuthority('ROLE_USER')")
     @LogExecution
-    public List<Book> getAllBooks() {
-        return bookService.findAll();
+    public CursorPageDto<Book> getAllBooks(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "" + BookService.DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(defaultValue = "id") String sort) {
+        return bookService.findPage(after, limit, BookSort.from(sort));
+    }
+
+    @GetMapping("/search")
+    @PreAuthorize("hasAuthority('ROLE_USER')")
+    @LogExecution
+    public List<BookSearchHitDto> searchBooks(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String author,
+            @RequestParam(required = false) Integer year,
+            @RequestParam(defaultValue = "" + BookService.DEFAULT_PAGE_SIZE) int limit) {
+        return bookService.search(q, author, year, limit);
+    }
+
+    @GetMapping("/export")
+    @PreAuthorize("hasAuthority('ROLE_USER')")
+    @LogExecution
+    public ResponseEntity<StreamingResponseBody> exportBooks() {
+        StreamingResponseBody body = out -> bookService.exportBooks(out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     @GetMapping("/{id}")
@@ -48,6 +92,40 @@ public class BookController {
         }
     }
 
+    @GetMapping("/isbn/{isbn}")
+    @PreAuthorize("hasAuthority('ROLE_USER')")
+    @LogExecution
+    public ResponseEntity<Object> getBookByIsbn(@PathVariable String isbn) {
+        try {
+            Book book = bookService.findById(bookService.findIdByIsbn(isbn));
+            return new ResponseEntity<Object>(book, HttpStatus.OK);
+        } catch (EntityNotFoundException e) {
+            return new ResponseEntity<Object>(e.getMessage(), HttpStatus.NOT_FOUND);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<Object>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            return new ResponseEntity<Object>(e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @GetMapping("/availability")
+    @PreAuthorize("hasAuthority('ROLE_USER')")
+    @LogExecution
+    public List<BookAvailabilityDto> getAvailability(@RequestParam List<Long> ids) {
+        return bookInventoryService.findAvailability(ids);
+    }
+
+    @GetMapping("/{id}/availability")
+    @PreAuthorize("hasAuthority('ROLE_USER')")
+    @LogExecution
+    public ResponseEntity<Object> getAvailability(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(bookInventoryService.findAvailability(id));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+    }
+
     @PostMapping
     @PreAuthorize("hasAuthority('ROLE_USER')")
     @LogExecution
@@ -55,6 +133,30 @@ public class BookController {
         return bookService.save(book);
     }
 
+    // The request body is streamed straight into the importer; it is never held in memory as a whole.
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    @PreAuthorize("hasAuthority('ROLE_USER')")
+    @LogExecution
+    public BookImportReportDto importBooks(HttpServletRequest request) throws IOException {
+        return bookImportService.importBooks(request.getInputStream(),
+                BookImportFormat.fromContentType(request.getContentType()));
+    }
+
+    @PatchMapping("/{id}/copies")
+    @PreAuthorize("hasAuthority('ROLE_USER')")
+    @LogExecution
+    public ResponseEntity<Object> updateCopies(@PathVariable Long id, @RequestBody BookCopiesDto request) {
+        try {
+            BookInventory inventory = bookInventoryService.setTotalCopies(id, request.getTotalCopies());
+            logger.info("Book with ID: {} now has {} copies", id, inventory.getTotalCopies());
+            return ResponseEntity.ok(inventory);
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasAuthority('ROLE_USER')")
     @LogExecution
@@ -72,18 +174,8 @@ public class BookController {
         try {
             Book updatedBook = bookService.updateBook(id, request);
             String currentUsername = SecurityContextHolder.getContext().getAuthentication().getName();
-            StringBuilder logMessage = new StringBuilder("User with username: ").append(currentUsername);
-            logMessage.append(" is updating the book with ID: ").append(id);
-
-            if (request.getTitle() != null) {
-                logMessage.append(". New title: ").append(request.getTitle());
-            }
-
-            if (request.getAuthor() != null) {
-                logMessage.append(". New author: ").append(request.getAuthor());
-            }
-
-            logger.info(logMessage.toString());
+            logger.info("User with username: {} is updating the book with ID: {}. New title: {}. New author: {}",
+                    currentUsername, id, request.getTitle(), request.getAuthor());
             return ResponseEntity.ok(updatedBook);
         } catch (NoSuchElementException e) {
             return ResponseEntity.notFound().build();
@@ -1,5 +1,7 @@
 package com.example.librarymanagementsystem.controllers;
 
+import com.example.librarymanagementsystem.Dto.BatchItemResultDto;
+import com.example.librarymanagementsystem.Dto.LoanRequestDto;
 import com.example.librarymanagementsystem.logging.LogExecution;
 import com.example.librarymanagementsystem.models.BorrowingRecord;
 import com.example.librarymanagementsystem.services.BookBorrowingService;
@@ -7,14 +9,19 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.NoSuchElementException;
 
 @RestController
@@ -49,4 +56,23 @@ public class BorrowingController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("An unexpected error occurred");
         }
     }
+
+    @PostMapping("/batch")
+    @PreAuthorize("hasAuthority('ROLE_USER')")
+    @LogExecution
+    public ResponseEntity<List<BatchItemResultDto>> borrowBooks(@RequestBody List<LoanRequestDto> requests) {
+        List<BatchItemResultDto> results = borrowingService.borrowBooks(requests);
+        logger.info("Batch borrow of {} books processed", results.size());
+        return ResponseEntity.ok(results);
+    }
+
+    @GetMapping("/export")
+    @PreAuthorize("hasAuthority('ROLE_USER')")
+    @LogExecution
+    public ResponseEntity<StreamingResponseBody> exportLoans() {
+        StreamingResponseBody body = out -> borrowingService.exportLoans(out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
 }
\ No newline at end of file
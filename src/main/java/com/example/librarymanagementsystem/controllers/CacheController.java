@@ -0,0 +1,27 @@
+package com.example.librarymanagementsystem.controllers;
+
+import com.example.librarymanagementsystem.Dto.CacheStatsDto;
+import com.example.librarymanagementsystem.logging.LogExecution;
+import com.example.librarymanagementsystem.services.CacheStatsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/cache")
+public class CacheController {
+
+    @Autowired
+    private CacheStatsService cacheStatsService;
+
+    @GetMapping("/stats")
+    @PreAuthorize("hasAuthority('ROLE_USER')")
+    @LogExecution
+    public List<CacheStatsDto> getCacheStats() {
+        return cacheStatsService.getStats();
+    }
+}
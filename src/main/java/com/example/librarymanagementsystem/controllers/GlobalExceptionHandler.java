@@ -1,10 +1,13 @@
 package com.example.librarymanagementsystem.controllers;
 
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import java.util.NoSuchElementException;
+import java.util.concurrent.RejectedExecutionException;
 import java.time.LocalDate;
 
 @ControllerAdvice
@@ -24,4 +27,28 @@ public class GlobalExceptionHandler {
                 .body(exception.getMessage());
     }
 
+    @ExceptionHandler({IllegalArgumentException.class})
+    public ResponseEntity<Object> handleIllegalArgumentException(IllegalArgumentException exception) {
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(exception.getMessage());
+    }
+
+    // e.g. a second book with the same ISBN, or deleting a book that still has borrowing records
+    @ExceptionHandler({DataIntegrityViolationException.class})
+    public ResponseEntity<Object> handleDataIntegrityViolationException(DataIntegrityViolationException exception) {
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body("The request conflicts with existing data");
+    }
+
+    // Password hashing queue is full (BoundedPasswordEncoder)
+    @ExceptionHandler({RejectedExecutionException.class})
+    public ResponseEntity<Object> handleRejectedExecutionException(RejectedExecutionException exception) {
+        return ResponseEntity
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(exception.getMessage());
+    }
+
 }
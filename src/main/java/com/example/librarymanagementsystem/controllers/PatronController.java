@@ -2,10 +2,15 @@ package com.example.librarymanagementsystem.controllers;
 
 import com.example.librarymanagementsystem.Dto.AuthenticationRequest;
 import com.example.librarymanagementsystem.Dto.AuthenticationResponse;
+import com.example.librarymanagementsystem.Dto.CursorPageDto;
+import com.example.librarymanagementsystem.Dto.LoanDto;
+import com.example.librarymanagementsystem.Dto.PatronSummaryDto;
 import com.example.librarymanagementsystem.Dto.RegisterRequest;
 import com.example.librarymanagementsystem.Dto.UserProfileUpdateDto;
 import com.example.librarymanagementsystem.logging.LogExecution;
 import com.example.librarymanagementsystem.models.Patron;
+import com.example.librarymanagementsystem.repositories.LoanStatus;
+import com.example.librarymanagementsystem.services.BookBorrowingService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
@@ -31,16 +36,22 @@ public class PatronController {
     @Autowired
     private PatronService patronService;
 
+    @Autowired
+    private BookBorrowingService bookBorrowingService;
+
     @GetMapping
     @PreAuthorize("hasAuthority('ROLE_USER')")
-    public List<Patron> getAllPatrons()
-    {
-        logger.info("User with username: {} is fetching all users.",
+    @LogExecution
+    public CursorPageDto<PatronSummaryDto> getAllPatrons(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "" + PatronService.DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(required = false) String email) {
+        logger.info("User with username: {} is fetching the patron directory.",
                 SecurityContextHolder
                         .getContext()
                         .getAuthentication()
                         .getName());
-        return patronService.findAll();
+        return patronService.findPage(after, limit, email);
     }
 
     @GetMapping("/{id}")
@@ -57,6 +68,17 @@ public class PatronController {
         }
     }
 
+    @GetMapping("/{id}/loans")
+    @PreAuthorize("hasAuthority('ROLE_USER')")
+    @LogExecution
+    public CursorPageDto<LoanDto> getPatronLoans(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "all") String status,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "" + PatronService.DEFAULT_PAGE_SIZE) int limit) {
+        return bookBorrowingService.findPatronLoans(id, LoanStatus.from(status), after, limit);
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasAuthority('ROLE_USER')")
     @LogExecution
@@ -99,6 +121,7 @@ public class PatronController {
     public ResponseEntity<Patron> updatePatron(
             @PathVariable Long id,
             @RequestBody UserProfileUpdateDto request) {
+        // Other failures, e.g. a full password hashing queue (429), are answered by GlobalExceptionHandler.
         try {
             Patron updatedPatron = patronService.updatePatron(id, request);
             logger.info("User authenticated with username: {} is updating his profile.",
@@ -109,9 +132,6 @@ public class PatronController {
             return ResponseEntity.ok(updatedPatron);
         } catch (NoSuchElementException e) {
             return ResponseEntity.notFound().build();
-        } catch (Exception e) {
-            // Handle other exceptions (e.g., database errors)
-            return ResponseEntity.status(500).build();
         }
     }
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package com.example.librarymanagementsystem.controllers;
 
+import com.example.librarymanagementsystem.Dto.BatchItemResultDto;
+import com.example.librarymanagementsystem.Dto.LoanRequestDto;
 import com.example.librarymanagementsystem.logging.LogExecution;
 import com.example.librarymanagementsystem.models.BorrowingRecord;
 import com.example.librarymanagementsystem.services.BookBorrowingService;
@@ -12,6 +14,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.NoSuchElementException;
 
 @RestController
@@ -43,4 +46,13 @@ public class ReturningController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("An unexpected error occurred");
         }
     }
+
+    @PatchMapping("/batch")
+    @PreAuthorize("hasAuthority('ROLE_USER')")
+    @LogExecution
+    public ResponseEntity<List<BatchItemResultDto>> returnBooks(@RequestBody List<LoanRequestDto> requests) {
+        List<BatchItemResultDto> results = borrowingService.returnBooks(requests);
+        logger.info("Batch return of {} books processed", results.size());
+        return ResponseEntity.ok(results);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,45 @@
+package com.example.librarymanagementsystem.controllers;
+
+import com.example.librarymanagementsystem.Dto.DailyCirculationDto;
+import com.example.librarymanagementsystem.Dto.PatronLoanStatsDto;
+import com.example.librarymanagementsystem.Dto.PopularBookDto;
+import com.example.librarymanagementsystem.logging.LogExecution;
+import com.example.librarymanagementsystem.services.CirculationStatsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/stats")
+public class StatsController {
+
+    @Autowired
+    private CirculationStatsService circulationStatsService;
+
+    @GetMapping("/books/popular")
+    @PreAuthorize("hasAuthority('ROLE_USER')")
+    @LogExecution
+    public List<PopularBookDto> getPopularBooks(@RequestParam(defaultValue = "10") int limit) {
+        return circulationStatsService.getPopularBooks(limit);
+    }
+
+    @GetMapping("/daily")
+    @PreAuthorize("hasAuthority('ROLE_USER')")
+    @LogExecution
+    public List<DailyCirculationDto> getDailyStats(@RequestParam(defaultValue = "30") int days) {
+        return circulationStatsService.getDailyStats(days);
+    }
+
+    @GetMapping("/patrons/{id}")
+    @PreAuthorize("hasAuthority('ROLE_USER')")
+    @LogExecution
+    public PatronLoanStatsDto getPatronStats(@PathVariable Long id) {
+        return circulationStatsService.getPatronStats(id);
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.librarymanagementsystem.events;
+
+import com.example.librarymanagementsystem.models.Book;
+
+// Payload of BOOK_* events other than loans; only bookId is set for BOOK_DELETED.
+public record BookPayload(Long bookId, String title, String author, String isbn13) {
+
+    public static BookPayload of(Book book) {
+        return new BookPayload(book.getId(), book.getTitle(), book.getAuthor(), book.getIsbn13());
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.librarymanagementsystem.events;
+
+import java.time.LocalDateTime;
+
+// An outbox event as handed to subscribers. `payload` is the JSON written by OutboxPublisher; `id`
+// identifies the event across redeliveries.
+public record DomainEvent(Long id, EventType type, Long aggregateId, String payload, LocalDateTime createdAt) {
+}
@@ -0,0 +1,17 @@
+package com.example.librarymanagementsystem.events;
+
+// An in-process consumer of outbox events. Every bean implementing it gets its own ring buffer and
+// thread from OutboxRelay. Delivery is at least once (an event can be redelivered after a restart
+// or a failed attempt), so handling must be idempotent, e.g. keyed on DomainEvent.id().
+public interface EventSubscriber {
+
+    // Used in thread names, logs and the subscriber tag of the metrics.
+    String getName();
+
+    default boolean accepts(EventType type) {
+        return true;
+    }
+
+    // Throwing makes the relay retry the event (library.events.subscriber.max-attempts).
+    void onEvent(DomainEvent event) throws Exception;
+}
@@ -0,0 +1,14 @@
+package com.example.librarymanagementsystem.events;
+
+// Kinds of domain events written to the outbox; stored by name in outbox_event.event_type.
+public enum EventType {
+    BOOK_CREATED,
+    BOOK_UPDATED,
+    BOOK_DELETED,
+    BOOK_BORROWED,
+    BOOK_RETURNED,
+    LOAN_OVERDUE,
+    PATRON_REGISTERED,
+    PATRON_UPDATED,
+    PATRON_DELETED
+}
@@ -0,0 +1,8 @@
+package com.example.librarymanagementsystem.events;
+
+import java.time.LocalDateTime;
+
+// Payload of BOOK_BORROWED and BOOK_RETURNED.
+public record LoanPayload(Long recordId, Long bookId, Long patronId, LocalDateTime borrowingDate,
+                          LocalDateTime dueDate, LocalDateTime returnDate) {
+}
@@ -0,0 +1,71 @@
+package com.example.librarymanagementsystem.events;
+
+import com.example.librarymanagementsystem.models.OutboxEvent;
+import com.example.librarymanagementsystem.repositories.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+
+// Writes domain events to the outbox in the caller's transaction, so an event exists exactly when
+// the change it describes was committed. Inserts share the JDBC batches of the transaction. After
+// the commit the relay is woken up, so subscribers see the event within milliseconds.
+@Component
+public class OutboxPublisher {
+
+    private static final Object WAKE_UP_REGISTERED = OutboxPublisher.class.getName() + ".wakeUp";
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Looked up lazily: subscribers may themselves depend on services that publish.
+    @Autowired
+    private ObjectProvider<OutboxRelay> outboxRelay;
+
+    public void publish(EventType type, Long aggregateId, Object payload) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Outbox events must be published inside a transaction");
+        }
+        try {
+            outboxEventRepository.save(OutboxEvent.builder()
+                    .type(type.name())
+                    .aggregateId(aggregateId)
+                    .payload(objectMapper.writeValueAsString(payload))
+                    .createdAt(LocalDateTime.now())
+                    .build());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+        wakeUpRelayAfterCommit();
+    }
+
+    // Once per transaction, however many events it publishes.
+    private void wakeUpRelayAfterCommit() {
+        if (TransactionSynchronizationManager.hasResource(WAKE_UP_REGISTERED)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(WAKE_UP_REGISTERED, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                OutboxRelay relay = outboxRelay.getIfAvailable();
+                if (relay != null) {
+                    relay.wakeUp();
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResource(WAKE_UP_REGISTERED);
+            }
+        });
+    }
+}
@@ -0,0 +1,338 @@
+package com.example.librarymanagementsystem.events;
+
+import com.example.librarymanagementsystem.config.ReadYourWritesGuard;
+import com.example.librarymanagementsystem.models.OutboxEvent;
+import com.example.librarymanagementsystem.repositories.OutboxEventRepository;
+import com.example.librarymanagementsystem.util.MpscRingBuffer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+// Delivers outbox events to the in-process subscribers (every EventSubscriber bean).
+//
+// A drainer thread reads the oldest events in batches and hands each one to the ring buffer of
+// every subscriber that accepts it; each subscriber consumes its buffer on a thread of its own.
+// Only when every subscriber has processed the whole batch are its rows deleted, in one statement,
+// and the next batch read. Events of a batch not fully processed (a crash, a shutdown) stay in the
+// outbox and are delivered again: delivery is at least once. With several instances, each relays
+// the same rows until one deletes them, so subscribers must tolerate duplicates.
+//
+// The drainer sleeps while the outbox is empty; OutboxPublisher wakes it after each commit that
+// wrote events, and library.events.relay.poll-interval-ms bounds the delay for anything else.
+// A full subscriber buffer holds the drainer back rather than dropping events.
+//
+// A row whose type this version does not know (written by a newer version, or edited by hand) can
+// never be delivered. It is logged in full, counted (library.events.discarded) and removed with its
+// batch, so it cannot block the events behind it.
+@Component
+public class OutboxRelay {
+
+    private static final long ACK_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long FULL_BUFFER_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long RETRY_BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ReadYourWritesGuard readYourWritesGuard;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired(required = false)
+    private List<EventSubscriber> subscribers = List.of();
+
+    @Value("${library.events.relay.enabled:true}")
+    private boolean enabled;
+
+    @Value("${library.events.relay.batch-size:500}")
+    private int batchSize;
+
+    @Value("${library.events.relay.poll-interval-ms:1000}")
+    private long pollIntervalMs;
+
+    @Value("${library.events.subscriber.buffer-size:1024}")
+    private int bufferSize;
+
+    @Value("${library.events.subscriber.max-attempts:5}")
+    private int maxAttempts;
+
+    private final List<SubscriberChannel> channels = new ArrayList<>();
+    private volatile boolean running;
+    private volatile boolean signalled;
+    private volatile Thread drainer;
+    private Counter relayed;
+    private Counter discarded;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+        relayed = Counter.builder("library.events.relayed")
+                .description("Outbox events delivered to every subscriber and removed from the outbox")
+                .register(meterRegistry);
+        discarded = Counter.builder("library.events.discarded")
+                .description("Outbox events of an unknown type, logged and removed without delivery")
+                .register(meterRegistry);
+        // Rounded up to a power of two, as the ring buffer requires.
+        int capacity = Integer.highestOneBit(Math.max(bufferSize, 2) - 1) << 1;
+        for (EventSubscriber subscriber : subscribers) {
+            channels.add(new SubscriberChannel(subscriber, capacity));
+        }
+        running = true;
+        channels.forEach(channel -> channel.thread.start());
+        Thread thread = new Thread(this::drain, "outbox-relay");
+        thread.setDaemon(true);
+        drainer = thread;
+        thread.start();
+        logger.info("Relaying outbox events to {} subscribers", channels.size());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        join(drainer);
+        channels.forEach(channel -> join(channel.thread));
+    }
+
+    public void wakeUp() {
+        signalled = true;
+        Thread thread = drainer;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private void drain() {
+        long pollIntervalNanos = TimeUnit.MILLISECONDS.toNanos(pollIntervalMs);
+        while (running) {
+            try {
+                // On the primary: a lagging replica would still return events already deleted.
+                List<OutboxEvent> batch = readYourWritesGuard.onPrimary(
+                        () -> outboxEventRepository.findOldest(Limit.of(batchSize)));
+                if (batch.isEmpty()) {
+                    // A wake-up that arrives between the query and the park leaves a permit, so
+                    // parkNanos returns at once.
+                    if (!signalled) {
+                        LockSupport.parkNanos(this, pollIntervalNanos);
+                    }
+                    signalled = false;
+                    continue;
+                }
+                if (deliver(batch)) {
+                    outboxEventRepository.deleteAllByIdInBatch(batch.stream().map(OutboxEvent::getId).toList());
+                    relayed.increment(batch.size());
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Could not relay outbox events, retrying: {}", e.getMessage());
+                LockSupport.parkNanos(this, pollIntervalNanos);
+            }
+        }
+    }
+
+    // Returns false when stopped before every subscriber processed the batch.
+    private boolean deliver(List<OutboxEvent> batch) {
+        BatchAck ack = new BatchAck(Thread.currentThread());
+        for (OutboxEvent outboxEvent : batch) {
+            EventType type = typeOf(outboxEvent);
+            if (type == null) {
+                continue;
+            }
+            DomainEvent event = new DomainEvent(outboxEvent.getId(), type,
+                    outboxEvent.getAggregateId(), outboxEvent.getPayload(), outboxEvent.getCreatedAt());
+            for (SubscriberChannel channel : channels) {
+                if (channel.subscriber.accepts(event.type())) {
+                    ack.expect();
+                    if (!channel.put(new Delivery(event, ack))) {
+                        return false;
+                    }
+                }
+            }
+        }
+        ack.arrive();
+        while (!ack.isDone()) {
+            if (!running) {
+                return false;
+            }
+            LockSupport.parkNanos(this, ACK_WAIT_NANOS);
+        }
+        return true;
+    }
+
+    private EventType typeOf(OutboxEvent outboxEvent) {
+        try {
+            return EventType.valueOf(outboxEvent.getType());
+        } catch (IllegalArgumentException e) {
+            discarded.increment();
+            logger.error("Discarding outbox event {} of unknown type {} (aggregate {}, created {}): {}",
+                    outboxEvent.getId(), outboxEvent.getType(), outboxEvent.getAggregateId(),
+                    outboxEvent.getCreatedAt(), outboxEvent.getPayload());
+            return null;
+        }
+    }
+
+    private void join(Thread thread) {
+        if (thread == null) {
+            return;
+        }
+        LockSupport.unpark(thread);
+        try {
+            thread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record Delivery(DomainEvent event, BatchAck ack) {
+    }
+
+    // Counts the deliveries of a batch still being processed. Starts at one for the drainer itself,
+    // so it cannot reach zero while the batch is still being handed out.
+    private static final class BatchAck {
+        private final AtomicInteger remaining = new AtomicInteger(1);
+        private final Thread waiter;
+
+        BatchAck(Thread waiter) {
+            this.waiter = waiter;
+        }
+
+        void expect() {
+            remaining.incrementAndGet();
+        }
+
+        void arrive() {
+            if (remaining.decrementAndGet() == 0) {
+                LockSupport.unpark(waiter);
+            }
+        }
+
+        boolean isDone() {
+            return remaining.get() == 0;
+        }
+    }
+
+    private final class SubscriberChannel {
+        private final EventSubscriber subscriber;
+        private final MpscRingBuffer<Delivery> buffer;
+        private final Thread thread;
+        // Events handed to the subscriber and not processed yet.
+        private final AtomicInteger lag = new AtomicInteger();
+        private final Timer delay;
+        private final Counter delivered;
+        private final Counter failed;
+        private volatile boolean idle;
+
+        SubscriberChannel(EventSubscriber subscriber, int capacity) {
+            this.subscriber = subscriber;
+            this.buffer = new MpscRingBuffer<>(capacity);
+            this.thread = new Thread(this::consume, "event-subscriber-" + subscriber.getName());
+            this.thread.setDaemon(true);
+            String name = subscriber.getName();
+            Gauge.builder("library.events.subscriber.lag", lag, AtomicInteger::get)
+                    .description("Events handed to the subscriber and not processed yet")
+                    .tag("subscriber", name)
+                    .register(meterRegistry);
+            this.delay = Timer.builder("library.events.subscriber.delay")
+                    .description("Time from an event's publication to its processing by the subscriber")
+                    .tag("subscriber", name)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofMillis(1))
+                    .maximumExpectedValue(Duration.ofMinutes(10))
+                    .register(meterRegistry);
+            this.delivered = Counter.builder("library.events.delivered")
+                    .description("Events processed by the subscriber")
+                    .tags("subscriber", name, "outcome", "SUCCESS")
+                    .register(meterRegistry);
+            this.failed = Counter.builder("library.events.delivered")
+                    .description("Events processed by the subscriber")
+                    .tags("subscriber", name, "outcome", "FAILED")
+                    .register(meterRegistry);
+        }
+
+        // Called by the drainer only. Waits while the buffer is full; false when stopped meanwhile.
+        boolean put(Delivery delivery) {
+            lag.incrementAndGet();
+            while (!buffer.offer(delivery)) {
+                if (!running) {
+                    lag.decrementAndGet();
+                    return false;
+                }
+                LockSupport.parkNanos(this, FULL_BUFFER_WAIT_NANOS);
+            }
+            if (idle) {
+                LockSupport.unpark(thread);
+            }
+            return true;
+        }
+
+        private void consume() {
+            while (running) {
+                Delivery delivery = buffer.poll();
+                if (delivery == null) {
+                    // Same handshake as RingBufferAppender: the drainer unparks us once it sees idle.
+                    idle = true;
+                    if (buffer.isEmpty() && running) {
+                        LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                    }
+                    idle = false;
+                    continue;
+                }
+                if (handle(delivery.event())) {
+                    lag.decrementAndGet();
+                    delivery.ack().arrive();
+                }
+            }
+        }
+
+        // An event that still fails after max-attempts is logged and counted, then acknowledged so
+        // that one bad event cannot stop the subscriber. Returns false when stopped before the event
+        // could be processed; it is then delivered again after the restart.
+        private boolean handle(DomainEvent event) {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    subscriber.onEvent(event);
+                    delivered.increment();
+                    delay.record(Duration.between(event.createdAt(), LocalDateTime.now()));
+                    return true;
+                } catch (Exception e) {
+                    if (!running) {
+                        return false;
+                    }
+                    if (attempt >= maxAttempts) {
+                        failed.increment();
+                        logger.error("Subscriber {} gave up on event {} ({}) after {} attempts",
+                                subscriber.getName(), event.id(), event.type(), attempt, e);
+                        return true;
+                    }
+                    LockSupport.parkNanos(this, RETRY_BACKOFF_NANOS * attempt);
+                }
+            }
+        }
+    }
+}
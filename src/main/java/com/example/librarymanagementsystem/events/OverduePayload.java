@@ -0,0 +1,9 @@
+package com.example.librarymanagementsystem.events;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Payload of LOAN_OVERDUE: the loan and the daily fine that applies from its due date.
+public record OverduePayload(Long recordId, Long bookId, Long patronId, LocalDateTime dueDate,
+                             BigDecimal finePerDay) {
+}
@@ -0,0 +1,5 @@
+package com.example.librarymanagementsystem.events;
+
+// Payload of PATRON_* events; never carries the password hash.
+public record PatronPayload(Long patronId, String firstname, String lastname, String email) {
+}
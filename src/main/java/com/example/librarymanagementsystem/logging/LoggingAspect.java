@@ -1,37 +1,158 @@
 package com.example.librarymanagementsystem.logging;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.aspectj.lang.JoinPoint;
-import org.aspectj.lang.annotation.After;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
-import org.aspectj.lang.annotation.Before;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.env.Environment;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 
-import java.util.Arrays;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 
+// Logs entry and exit of @LogExecution methods and records, per class and method:
+//  - library.endpoint.requests: latency histogram, tagged with the outcome (SUCCESS, CLIENT_ERROR,
+//    SERVER_ERROR from the returned ResponseEntity status, EXCEPTION when the method throws)
+//  - library.endpoint.errors: error outcomes, tagged with the exception class when one was thrown
+//  - library.endpoint.in.flight: calls currently executing
+// Exposed at /actuator/prometheus.
+//
+// Entry and exit lines of busy endpoints can be sampled: library.logging.sampling.<Class>.<method>=N
+// logs one call in N (library.logging.sampling.default applies to the others). Metrics are not sampled.
 @Aspect
 @Component
+@RequiredArgsConstructor
 public class LoggingAspect {
     private static final Logger logger = LogManager.getLogger(LoggingAspect.class);
 
-    @Before("@annotation(LogExecution)")
-    public void logBefore(JoinPoint joinPoint) {
-        // Log method entry for controllers
-        Object[] args = joinPoint.getArgs();
-        String methodName = joinPoint.getSignature().getName();
-        String className = joinPoint.getTarget().getClass().getSimpleName();
-        logger.info("Entering method: {}.{}", className, methodName);
+    private final MeterRegistry meterRegistry;
+    private final Environment environment;
+
+    // Meters are looked up once per method instead of on every call.
+    private final Map<Method, MethodMetrics> metrics = new ConcurrentHashMap<>();
+
+    @Around("@annotation(LogExecution)")
+    public Object logExecution(ProceedingJoinPoint joinPoint) throws Throwable {
+        MethodMetrics methodMetrics = metrics.computeIfAbsent(
+                ((MethodSignature) joinPoint.getSignature()).getMethod(),
+                method -> new MethodMetrics(joinPoint.getTarget().getClass().getSimpleName(), method.getName()));
+        boolean logged = methodMetrics.sampleRate == 1
+                || ThreadLocalRandom.current().nextInt(methodMetrics.sampleRate) == 0;
+        if (logged) {
+            logger.info("Entering method: {}.{}", methodMetrics.className, methodMetrics.methodName);
+        }
+
+        methodMetrics.inFlight.incrementAndGet();
+        long start = System.nanoTime();
+        Outcome outcome = Outcome.EXCEPTION;
+        String exception = "none";
+        try {
+            Object result = joinPoint.proceed();
+            outcome = Outcome.of(result);
+            return result;
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            methodMetrics.inFlight.decrementAndGet();
+            methodMetrics.timer(outcome).record(elapsed, TimeUnit.NANOSECONDS);
+            if (outcome != Outcome.SUCCESS) {
+                methodMetrics.errors(outcome, exception).increment();
+            }
+            if (logged) {
+                logger.info("Exiting method: {}.{} ({} in {} µs)", methodMetrics.className,
+                        methodMetrics.methodName, outcome, elapsed / 1000);
+            }
+        }
+    }
+
+    private enum Outcome {
+        SUCCESS, CLIENT_ERROR, SERVER_ERROR, EXCEPTION;
+
+        // Controllers catch their exceptions and answer with an error status, so look at the response.
+        static Outcome of(Object result) {
+            if (result instanceof ResponseEntity<?> response) {
+                if (response.getStatusCode().is5xxServerError()) {
+                    return SERVER_ERROR;
+                }
+                if (response.getStatusCode().is4xxClientError()) {
+                    return CLIENT_ERROR;
+                }
+            }
+            return SUCCESS;
+        }
     }
 
-    @After("@annotation(LogExecution)")
-    public void logAfter(JoinPoint joinPoint) {
-        // Log method exit for controllers
-        String methodName = joinPoint.getSignature().getName();
-        String className = joinPoint.getTarget().getClass().getSimpleName();
-        logger.info("Exiting method: " + className + "." + methodName);
+    private class MethodMetrics {
+        private final String className;
+        private final String methodName;
+        private final AtomicInteger inFlight;
+        private final int sampleRate;
+        private final Timer[] timers = new Timer[Outcome.values().length];
+        // Per outcome: exception tag -> counter.
+        private final Map<String, Counter>[] errorCounters = newErrorCounters();
+
+        MethodMetrics(String className, String methodName) {
+            this.className = className;
+            this.methodName = methodName;
+            int defaultRate = environment.getProperty("library.logging.sampling.default", Integer.class, 1);
+            this.sampleRate = Math.max(1, environment.getProperty(
+                    "library.logging.sampling." + className + "." + methodName, Integer.class, defaultRate));
+            this.inFlight = new AtomicInteger();
+            Gauge.builder("library.endpoint.in.flight", inFlight, AtomicInteger::get)
+                    .description("@LogExecution calls currently executing")
+                    .tags("class", className, "method", methodName)
+                    .register(meterRegistry);
+        }
+
+        // Registered on first use so that outcomes a method never has do not show up as empty series.
+        // Racing threads get the same meter back from the registry.
+        Timer timer(Outcome outcome) {
+            Timer timer = timers[outcome.ordinal()];
+            if (timer == null) {
+                timer = Timer.builder("library.endpoint.requests")
+                        .description("Latency of @LogExecution methods")
+                        .tags("class", className, "method", methodName, "outcome", outcome.name())
+                        .publishPercentileHistogram()
+                        .minimumExpectedValue(Duration.ofMillis(1))
+                        .maximumExpectedValue(Duration.ofSeconds(30))
+                        .register(meterRegistry);
+                timers[outcome.ordinal()] = timer;
+            }
+            return timer;
+        }
+
+        Counter errors(Outcome outcome, String exception) {
+            return errorCounters[outcome.ordinal()].computeIfAbsent(exception, e ->
+                    Counter.builder("library.endpoint.errors")
+                            .description("Error responses and exceptions of @LogExecution methods")
+                            .tags("class", className, "method", methodName, "outcome", outcome.name(),
+                                    "exception", e)
+                            .register(meterRegistry));
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Map<String, Counter>[] newErrorCounters() {
+            Map<String, Counter>[] counters = new Map[Outcome.values().length];
+            for (int i = 0; i < counters.length; i++) {
+                counters[i] = new ConcurrentHashMap<>();
+            }
+            return counters;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,217 @@
+package com.example.librarymanagementsystem.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.spi.AppenderAttachable;
+import ch.qos.logback.core.spi.AppenderAttachableImpl;
+import com.example.librarymanagementsystem.util.MpscRingBuffer;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// Logback appender that hands events to a background thread through a bounded ring buffer and
+// writes them to the appenders it references (see logback-spring.xml).
+//
+// Request threads prepare the event for deferred processing (message, thread name, MDC) and enqueue;
+// the layout runs on the background thread when the event is written. When the buffer is full, events
+// below WARN are dropped rather than blocking the caller, while WARN and ERROR wait up to maxBlockTime
+// for the background thread to make room and are only dropped after that. Drops are counted
+// (library.logging.dropped) and reported in a WARN line once per second.
+// With async=false events are written directly by the calling thread.
+public class RingBufferAppender extends UnsynchronizedAppenderBase<ILoggingEvent>
+        implements AppenderAttachable<ILoggingEvent> {
+
+    private static final long REPORT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final AppenderAttachableImpl<ILoggingEvent> appenders = new AppenderAttachableImpl<>();
+    private final LongAdder dropped = new LongAdder();
+    private boolean async = true;
+    private int capacity = 8192;
+    private int maxFlushTime = 1000;
+    private int maxBlockTime = 100;
+    private MpscRingBuffer<ILoggingEvent> buffer;
+    private Thread worker;
+    private volatile boolean idle;
+
+    @Override
+    public void start() {
+        if (isStarted()) {
+            return;
+        }
+        if (async) {
+            buffer = new MpscRingBuffer<>(capacity);
+            worker = new Thread(this::drain, "log-ring-buffer");
+            worker.setDaemon(true);
+        }
+        super.start();
+        if (worker != null) {
+            worker.start();
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+        if (worker != null) {
+            LockSupport.unpark(worker);
+            try {
+                worker.join(maxFlushTime);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (worker.isAlive()) {
+                addWarn("Gave up flushing " + buffer.size() + " log events after " + maxFlushTime + " ms");
+            }
+        }
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        if (buffer == null) {
+            appenders.appendLoopOnAppenders(event);
+            return;
+        }
+        event.prepareForDeferredProcessing();
+        if (!buffer.offer(event) && !(event.getLevel().isGreaterOrEqual(Level.WARN) && offerWaiting(event))) {
+            dropped.increment();
+            return;
+        }
+        if (idle) {
+            LockSupport.unpark(worker);
+        }
+    }
+
+    // The worker itself never waits: it is the only thread that can make room.
+    private boolean offerWaiting(ILoggingEvent event) {
+        if (Thread.currentThread() == worker) {
+            return false;
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxBlockTime);
+        while (System.nanoTime() - deadline < 0) {
+            LockSupport.unpark(worker);
+            LockSupport.parkNanos(this, FULL_PARK_NANOS);
+            if (buffer.offer(event)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void drain() {
+        long reported = 0;
+        long nextReport = System.nanoTime() + REPORT_INTERVAL_NANOS;
+        while (isStarted() || !buffer.isEmpty()) {
+            ILoggingEvent event = buffer.poll();
+            if (event != null) {
+                appenders.appendLoopOnAppenders(event);
+                continue;
+            }
+            if (System.nanoTime() - nextReport >= 0) {
+                reported = reportDropped(reported);
+                nextReport = System.nanoTime() + REPORT_INTERVAL_NANOS;
+            }
+            // Producers unpark us once they see idle; the second check closes the race with an offer
+            // that happened just before idle was set.
+            idle = true;
+            if (buffer.isEmpty() && isStarted()) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+            idle = false;
+        }
+        reportDropped(reported);
+    }
+
+    private long reportDropped(long reported) {
+        long total = dropped.sum();
+        if (total > reported) {
+            LoggerContext loggerContext = (LoggerContext) getContext();
+            LoggingEvent event = new LoggingEvent(RingBufferAppender.class.getName(),
+                    loggerContext.getLogger(RingBufferAppender.class), Level.WARN,
+                    "Dropped {} log events because the ring buffer of {} was full ({} in total)",
+                    null, new Object[]{total - reported, capacity, total});
+            appenders.appendLoopOnAppenders(event);
+        }
+        return total;
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public int getQueueSize() {
+        return buffer == null ? 0 : buffer.size();
+    }
+
+    public boolean isAsync() {
+        return async;
+    }
+
+    public void setAsync(boolean async) {
+        this.async = async;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    // Rounded up to a power of two.
+    public void setCapacity(int capacity) {
+        this.capacity = capacity <= 2 ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+    }
+
+    public void setMaxFlushTime(int maxFlushTime) {
+        this.maxFlushTime = maxFlushTime;
+    }
+
+    // Milliseconds a WARN or ERROR event waits for room in a full buffer before it is dropped.
+    public void setMaxBlockTime(int maxBlockTime) {
+        this.maxBlockTime = maxBlockTime;
+    }
+
+    @Override
+    public void addAppender(Appender<ILoggingEvent> appender) {
+        appenders.addAppender(appender);
+    }
+
+    @Override
+    public Iterator<Appender<ILoggingEvent>> iteratorForAppenders() {
+        return appenders.iteratorForAppenders();
+    }
+
+    @Override
+    public Appender<ILoggingEvent> getAppender(String name) {
+        return appenders.getAppender(name);
+    }
+
+    @Override
+    public boolean isAttached(Appender<ILoggingEvent> appender) {
+        return appenders.isAttached(appender);
+    }
+
+    @Override
+    public void detachAndStopAllAppenders() {
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    public boolean detachAppender(Appender<ILoggingEvent> appender) {
+        return appenders.detachAppender(appender);
+    }
+
+    @Override
+    public boolean detachAppender(String name) {
+        return appenders.detachAppender(name);
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.librarymanagementsystem.logging;
+
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+
+// Publishes the dropped-event count and queue size of the RingBufferAppender configured in logback-spring.xml.
+@Component
+public class RingBufferMetrics implements MeterBinder {
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext loggerContext)) {
+            return;
+        }
+        Iterator<Appender<ILoggingEvent>> appenders =
+                loggerContext.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME).iteratorForAppenders();
+        while (appenders.hasNext()) {
+            if (appenders.next() instanceof RingBufferAppender appender) {
+                FunctionCounter.builder("library.logging.dropped", appender, RingBufferAppender::getDroppedCount)
+                        .description("Log events dropped because the ring buffer was full")
+                        .tag("appender", appender.getName())
+                        .register(registry);
+                Gauge.builder("library.logging.queue.size", appender, RingBufferAppender::getQueueSize)
+                        .description("Log events waiting to be written")
+                        .tag("appender", appender.getName())
+                        .register(registry);
+            }
+        }
+    }
+}
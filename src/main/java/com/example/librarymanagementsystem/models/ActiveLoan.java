@@ -0,0 +1,45 @@
+package com.example.librarymanagementsystem.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// One row per open loan, removed on return. Open-loan checks look here instead of searching
+// the borrowing history, so they stay constant-time however long the history grows. The
+// unique key also guarantees that a patron cannot hold two open loans of the same book.
+// Since the table holds open loans only, the due date index is what a partial index on
+// borrowing_record(due_date) WHERE return_date IS NULL would be; OverdueLoanScanner walks it.
+@Entity
+@Table(name = "active_loan",
+        uniqueConstraints = @UniqueConstraint(name = "ux_active_loan_book_patron", columnNames = {"book_id", "patron_id"}),
+        indexes = @Index(name = "idx_active_loan_due_date", columnList = "due_date, record_id"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActiveLoan {
+
+    // Id of the open BorrowingRecord.
+    @Id
+    @Column(name = "record_id")
+    private Long recordId;
+
+    @Column(name = "book_id", nullable = false)
+    private Long bookId;
+
+    @Column(name = "patron_id", nullable = false)
+    private Long patronId;
+
+    @Column(name = "borrowing_date", nullable = false)
+    private LocalDateTime borrowingDate;
+
+    // Null for loans opened before due dates existed; those are never reported overdue.
+    @Column(name = "due_date")
+    private LocalDateTime dueDate;
+
+    // Set once OverdueLoanScanner has written the loan's overdue notice, so that a loan found
+    // again by a later scan is not reported twice.
+    @Column(name = "overdue_notified_at")
+    private LocalDateTime overdueNotifiedAt;
+}
@@ -1,8 +1,11 @@
 package com.example.librarymanagementsystem.models;
 
+import com.example.librarymanagementsystem.config.CacheConfig;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Pattern;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.format.annotation.DateTimeFormat;
 
 import java.util.Date;
@@ -10,14 +13,24 @@ import java.util.Date;
 @Getter
 @Setter
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_book_title_id", columnList = "title, id"),
+        @Index(name = "idx_book_author_id", columnList = "author, id"),
+        @Index(name = "ux_book_isbn13", columnList = "isbn13", unique = true)
+})
+// Second-level cache: kept in step with every update and delete made through Hibernate.
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheConfig.BOOK_REGION)
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class Book {
 
+    // Pooled sequence (50 ids per round trip) so that bulk imports can be batched by JDBC.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "book_seq")
+    @SequenceGenerator(name = "book_seq", sequenceName = "book_seq", allocationSize = 50)
     private Long id;
     private String title;
     private String author;
@@ -26,6 +39,10 @@ public class Book {
     @Column(name = "publication_year")
     private Date publication_year;
 
-    @Pattern(regexp = "(?=(?:\\D*\\d){10}(?:(?:\\D*\\d){3})?$)", message = "Invalid ISBN format")
+    @Pattern(regexp = "(?:\\d[- ]?){9}[\\dXx]|(?:\\d[- ]?){12}\\d", message = "Invalid ISBN format")
     private String isbn;
+
+    // Normalized form of `isbn` (ISBN-13 digits only), maintained by BookService.
+    @Column(name = "isbn13", length = 13)
+    private String isbn13;
 }
\ No newline at end of file
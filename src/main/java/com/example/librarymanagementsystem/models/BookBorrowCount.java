@@ -0,0 +1,27 @@
+package com.example.librarymanagementsystem.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// Times each book has been borrowed, maintained by CirculationStatsService from its in-memory
+// counters. The index on the count gives the most borrowed books without sorting the table.
+@Entity
+@Table(name = "book_borrow_count",
+        indexes = @Index(name = "idx_book_borrow_count_count", columnList = "borrow_count DESC"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookBorrowCount {
+
+    @Id
+    @Column(name = "book_id")
+    private Long bookId;
+
+    @Column(name = "borrow_count", nullable = false)
+    private long borrowCount;
+
+    // Flushes from several instances that touch the same row fail instead of losing increments.
+    @Version
+    private Long version;
+}
@@ -0,0 +1,25 @@
+package com.example.librarymanagementsystem.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// Copies owned per book. Kept apart from Book so that borrowing only touches this small row:
+// the book row, its cache entry and its search index entry are never written by a loan.
+@Entity
+@Table(name = "book_inventory")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookInventory {
+
+    @Id
+    @Column(name = "book_id")
+    private Long bookId;
+
+    @Column(name = "total_copies", nullable = false)
+    private int totalCopies;
+
+    @Column(name = "available_copies", nullable = false)
+    private int availableCopies;
+}
@@ -1,5 +1,8 @@
 package com.example.librarymanagementsystem.models;
 
+import com.fasterxml.jackson.annotation.JsonIdentityInfo;
+import com.fasterxml.jackson.annotation.JsonIdentityReference;
+import com.fasterxml.jackson.annotation.ObjectIdGenerators;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
@@ -10,27 +13,41 @@ import java.time.LocalDateTime;
 @Getter
 @Setter
 @Entity
+// Covers a patron's loan history (GET /api/patrons/{id}/loans): filtered, ordered and paged
+// without reading the table itself.
+@Table(indexes = @Index(name = "idx_borrowing_record_patron_date",
+        columnList = "patron_id, borrowing_date DESC, id DESC, return_date, book_id"))
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class BorrowingRecord {
 
+    // Pooled sequence (50 ids per round trip) so that inserts can be batched by JDBC.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "borrowing_record_seq")
+    @SequenceGenerator(name = "borrowing_record_seq", sequenceName = "borrowing_record_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    // Lazy and serialized as ids: a loan never needs the book or patron rows loaded.
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "book_id")
+    @JsonIdentityInfo(generator = ObjectIdGenerators.PropertyGenerator.class, property = "id")
+    @JsonIdentityReference(alwaysAsId = true)
     private Book borrowedBook;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "patron_id")
+    @JsonIdentityInfo(generator = ObjectIdGenerators.PropertyGenerator.class, property = "id")
+    @JsonIdentityReference(alwaysAsId = true)
     private Patron borrowedBy;
 
     @NotNull(message = "Borrowing date cannot be null")
     private LocalDateTime borrowingDate;
 
+    // Set from the LoanPolicy when the book is borrowed.
+    private LocalDateTime dueDate;
+
     private LocalDateTime returnDate;
 
     public BorrowingRecord(long bookId, long patronId, LocalDate now) {
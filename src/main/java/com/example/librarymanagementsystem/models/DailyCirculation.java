@@ -0,0 +1,29 @@
+package com.example.librarymanagementsystem.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+// Borrows and returns per calendar day, maintained by CirculationStatsService.
+@Entity
+@Table(name = "daily_circulation")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyCirculation {
+
+    @Id
+    @Column(name = "circulation_date")
+    private LocalDate day;
+
+    @Column(nullable = false)
+    private long borrows;
+
+    @Column(nullable = false)
+    private long returns;
+
+    @Version
+    private Long version;
+}
@@ -0,0 +1,35 @@
+package com.example.librarymanagementsystem.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// How far an incremental job got: the (due date, record id) of the latest loan it processed.
+// Advanced in the same transaction as the job's output, so a run that fails resumes where the
+// last committed batch ended. The version makes two instances running the job at once fail
+// instead of both processing the same loans.
+@Entity
+@Table(name = "job_watermark")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobWatermark {
+
+    @Id
+    @Column(length = 50)
+    private String name;
+
+    @Column(name = "last_due_date", nullable = false)
+    private LocalDateTime lastDueDate;
+
+    @Column(name = "last_record_id", nullable = false)
+    private Long lastRecordId;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Version
+    private Long version;
+}
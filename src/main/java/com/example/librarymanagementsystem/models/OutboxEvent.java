@@ -0,0 +1,36 @@
+package com.example.librarymanagementsystem.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// A notification waiting to be delivered, written in the same transaction as the change it
+// reports so that neither can be lost without the other. `payload` is the event as JSON.
+@Entity
+@Table(name = "outbox_event")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+
+    // Pooled sequence (50 ids per round trip) so that inserts can be batched by JDBC.
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_event_seq")
+    @SequenceGenerator(name = "outbox_event_seq", sequenceName = "outbox_event_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "event_type", nullable = false, length = 50)
+    private String type;
+
+    // Id of the entity the event is about, e.g. the borrowing record of an overdue loan.
+    @Column(name = "aggregate_id", nullable = false)
+    private Long aggregateId;
+
+    @Column(nullable = false, length = 4000)
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -1,9 +1,12 @@
 package com.example.librarymanagementsystem.models;
 
+import com.example.librarymanagementsystem.config.CacheConfig;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotEmpty;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -15,6 +18,11 @@ import java.util.List;
 @Getter
 @Setter
 @Entity
+// Logins look patrons up by email, and the directory filters on an email prefix.
+@Table(indexes = @Index(name = "idx_patron_email", columnList = "email"))
+// Second-level cache: kept in step with every update and delete made through Hibernate.
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheConfig.PATRON_REGION)
 @Data
 @Builder
 @NoArgsConstructor
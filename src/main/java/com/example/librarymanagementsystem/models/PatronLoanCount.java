@@ -0,0 +1,24 @@
+package com.example.librarymanagementsystem.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// Open loans of each patron, maintained by CirculationStatsService.
+@Entity
+@Table(name = "patron_loan_count")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PatronLoanCount {
+
+    @Id
+    @Column(name = "patron_id")
+    private Long patronId;
+
+    @Column(name = "active_loans", nullable = false)
+    private long activeLoans;
+
+    @Version
+    private Long version;
+}
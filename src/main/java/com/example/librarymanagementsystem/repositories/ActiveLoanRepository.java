@@ -0,0 +1,49 @@
+package com.example.librarymanagementsystem.repositories;
+
+import com.example.librarymanagementsystem.models.ActiveLoan;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface ActiveLoanRepository extends JpaRepository<ActiveLoan, Long> {
+
+    Optional<ActiveLoan> findByBookIdAndPatronId(Long bookId, Long patronId);
+
+    boolean existsByBookIdAndPatronId(Long bookId, Long patronId);
+
+    // Open loans among the given books and patrons; callers pick the exact (book, patron) pairs they need.
+    @Query("SELECT a FROM ActiveLoan a WHERE a.bookId IN :bookIds AND a.patronId IN :patronIds")
+    List<ActiveLoan> findOpenLoans(@Param("bookIds") Collection<Long> bookIds, @Param("patronIds") Collection<Long> patronIds);
+
+    // Returns how many of the loans were still open; fewer than asked means a concurrent return won.
+    @Modifying
+    @Query("DELETE FROM ActiveLoan a WHERE a.recordId IN :recordIds")
+    int closeLoans(@Param("recordIds") Collection<Long> recordIds);
+
+    @Modifying
+    @Query("INSERT INTO ActiveLoan (recordId, bookId, patronId, borrowingDate, dueDate) "
+            + "SELECT br.id, br.borrowedBook.id, br.borrowedBy.id, br.borrowingDate, br.dueDate FROM BorrowingRecord br "
+            + "WHERE br.returnDate IS NULL AND NOT EXISTS (SELECT 1 FROM ActiveLoan a WHERE a.recordId = br.id)")
+    int createFromOpenRecords();
+
+    // Open loans not reported yet whose due date lies in (from, until], in due date order; a range
+    // scan of idx_active_loan_due_date.
+    @Query("SELECT a FROM ActiveLoan a WHERE a.dueDate > :from AND a.dueDate <= :until "
+            + "AND a.overdueNotifiedAt IS NULL "
+            + "ORDER BY a.dueDate, a.recordId")
+    List<ActiveLoan> findUnreportedDueBetween(@Param("from") LocalDateTime from,
+                                              @Param("until") LocalDateTime until,
+                                              Limit limit);
+
+    @Modifying
+    @Query("UPDATE ActiveLoan a SET a.overdueNotifiedAt = :notifiedAt WHERE a.recordId IN :recordIds")
+    int markOverdueNotified(@Param("recordIds") Collection<Long> recordIds,
+                            @Param("notifiedAt") LocalDateTime notifiedAt);
+}
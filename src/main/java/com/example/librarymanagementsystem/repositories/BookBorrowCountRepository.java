@@ -0,0 +1,21 @@
+package com.example.librarymanagementsystem.repositories;
+
+import com.example.librarymanagementsystem.models.BookBorrowCount;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface BookBorrowCountRepository extends JpaRepository<BookBorrowCount, Long> {
+
+    @Query("SELECT c FROM BookBorrowCount c ORDER BY c.borrowCount DESC, c.bookId")
+    List<BookBorrowCount> findMostBorrowed(Limit limit);
+
+    // One-off backfill from the borrowing history, for databases that predate the statistics.
+    @Modifying
+    @Query("INSERT INTO BookBorrowCount (bookId, borrowCount, version) "
+            + "SELECT br.borrowedBook.id, COUNT(br), 0L FROM BorrowingRecord br GROUP BY br.borrowedBook.id")
+    int createFromHistory();
+}
@@ -1,12 +1,55 @@
 package com.example.librarymanagementsystem.repositories;
 
+import com.example.librarymanagementsystem.Dto.LoanDto;
 import com.example.librarymanagementsystem.models.BorrowingRecord;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
 public interface BookBorrowingRepository extends JpaRepository<BorrowingRecord, Long> {
 
+    String PATRON_LOANS = "SELECT new com.example.librarymanagementsystem.Dto.LoanDto(br.id, br.borrowedBook.id, br.borrowedBy.id, br.borrowingDate, br.returnDate) "
+            + "FROM BorrowingRecord br WHERE br.borrowedBy.id = :patronId "
+            + "AND ((:includeActive = true AND br.returnDate IS NULL) OR (:includeReturned = true AND br.returnDate IS NOT NULL)) ";
+    String NEWEST_FIRST = "ORDER BY br.borrowingDate DESC, br.id DESC";
+
     @Query("SELECT br FROM BorrowingRecord br WHERE br.borrowedBy.id = :borrowedBy AND br.borrowedBook.id = :borrowedBook ORDER BY br.id DESC LIMIT 1")
     BorrowingRecord findLastBorrowingRecord(@Param("borrowedBy") Long borrowedBy, @Param("borrowedBook") Long borrowedBook);
+
+    // Records are closed by primary key; which loans are open is looked up in ActiveLoan.
+    @Modifying
+    @Query("UPDATE BorrowingRecord br SET br.returnDate = :returnDate WHERE br.id IN :ids AND br.returnDate IS NULL")
+    int closeRecords(@Param("ids") Collection<Long> ids, @Param("returnDate") LocalDateTime returnDate);
+
+    // Projects straight to DTOs so neither the book nor the patron of each record is loaded.
+    // Must be consumed inside a transaction.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.example.librarymanagementsystem.Dto.LoanDto(br.id, br.borrowedBook.id, br.borrowedBy.id, br.borrowingDate, br.returnDate) FROM BorrowingRecord br ORDER BY br.id")
+    Stream<LoanDto> streamAllLoans();
+
+    // A patron's history, newest first, read from idx_borrowing_record_patron_date alone.
+    @Query(PATRON_LOANS + NEWEST_FIRST)
+    List<LoanDto> findPatronLoans(@Param("patronId") Long patronId,
+                                  @Param("includeActive") boolean includeActive,
+                                  @Param("includeReturned") boolean includeReturned,
+                                  Limit limit);
+
+    // Next page: loans older than the cursor loan (borrowingDate, id).
+    @Query(PATRON_LOANS + "AND (br.borrowingDate < :afterDate OR (br.borrowingDate = :afterDate AND br.id < :afterId)) " + NEWEST_FIRST)
+    List<LoanDto> findPatronLoansAfter(@Param("patronId") Long patronId,
+                                       @Param("includeActive") boolean includeActive,
+                                       @Param("includeReturned") boolean includeReturned,
+                                       @Param("afterDate") LocalDateTime afterDate,
+                                       @Param("afterId") Long afterId,
+                                       Limit limit);
 }
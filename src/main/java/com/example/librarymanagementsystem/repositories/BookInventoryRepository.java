@@ -0,0 +1,52 @@
+package com.example.librarymanagementsystem.repositories;
+
+import com.example.librarymanagementsystem.models.BookInventory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+// Availability only ever changes through the conditional updates below. Each is a single
+// statement checked and applied by the database, so concurrent loans of the same title
+// can neither oversell nor need a read-then-write round trip under a row lock.
+public interface BookInventoryRepository extends JpaRepository<BookInventory, Long> {
+
+    // Returns 1 when a copy was taken, 0 when none is available (or the book has no inventory).
+    @Modifying
+    @Query("UPDATE BookInventory i SET i.availableCopies = i.availableCopies - 1 WHERE i.bookId = :bookId AND i.availableCopies > 0")
+    int takeCopy(@Param("bookId") Long bookId);
+
+    // The whole borrow check in one statement: takes a copy only if the patron exists and has no
+    // open loan of the book. Returns 0 when any condition fails; callers find out which afterwards.
+    @Modifying
+    @Query("UPDATE BookInventory i SET i.availableCopies = i.availableCopies - 1 WHERE i.bookId = :bookId AND i.availableCopies > 0 "
+            + "AND EXISTS (SELECT 1 FROM Patron p WHERE p.id = :patronId) "
+            + "AND NOT EXISTS (SELECT 1 FROM ActiveLoan a WHERE a.bookId = :bookId AND a.patronId = :patronId)")
+    int takeCopyFor(@Param("bookId") Long bookId, @Param("patronId") Long patronId);
+
+    // Returns 1 when the copies were put back, 0 when that would exceed the copies owned.
+    @Modifying
+    @Query("UPDATE BookInventory i SET i.availableCopies = i.availableCopies + :count WHERE i.bookId = :bookId AND i.availableCopies + :count <= i.totalCopies")
+    int returnCopies(@Param("bookId") Long bookId, @Param("count") int count);
+
+    // Changes the copies owned while keeping the copies on loan; returns 0 when more copies
+    // than the new total are currently on loan.
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE BookInventory i SET i.availableCopies = i.availableCopies + (:totalCopies - i.totalCopies), i.totalCopies = :totalCopies WHERE i.bookId = :bookId AND i.totalCopies - i.availableCopies <= :totalCopies")
+    int setTotalCopies(@Param("bookId") Long bookId, @Param("totalCopies") int totalCopies);
+
+    // Gives every book without inventory a single copy, on loan if it has an open borrowing record.
+    @Modifying
+    @Query("INSERT INTO BookInventory (bookId, totalCopies, availableCopies) "
+            + "SELECT b.id, 1, CASE WHEN EXISTS (SELECT 1 FROM ActiveLoan a WHERE a.bookId = b.id) THEN 0 ELSE 1 END "
+            + "FROM Book b WHERE NOT EXISTS (SELECT 1 FROM BookInventory i WHERE i.bookId = b.id)")
+    int createMissing();
+
+    // The same for one book: returns 1 when its inventory was created, 0 when it already had one
+    // or the book does not exist.
+    @Modifying
+    @Query("INSERT INTO BookInventory (bookId, totalCopies, availableCopies) "
+            + "SELECT b.id, 1, CASE WHEN EXISTS (SELECT 1 FROM ActiveLoan a WHERE a.bookId = b.id) THEN 0 ELSE 1 END "
+            + "FROM Book b WHERE b.id = :bookId AND NOT EXISTS (SELECT 1 FROM BookInventory i WHERE i.bookId = b.id)")
+    int createMissingFor(@Param("bookId") Long bookId);
+}
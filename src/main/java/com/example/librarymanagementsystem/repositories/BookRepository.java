@@ -1,7 +1,31 @@
 package com.example.librarymanagementsystem.repositories;
 
 import com.example.librarymanagementsystem.models.Book;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface BookRepository extends JpaRepository<Book, Long> {
-}
\ No newline at end of file
+import java.util.List;
+
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface BookRepository extends JpaRepository<Book, Long>, BookRepositoryCustom {
+
+    Optional<Book> findByIsbn13(String isbn13);
+
+    boolean existsByIsbn13(String isbn13);
+
+    // Rows with an ISBN but no isbn13, in id order after the given id; read by the startup backfill.
+    @Query("SELECT b FROM Book b WHERE b.isbn13 IS NULL AND b.isbn IS NOT NULL AND b.id > :after ORDER BY b.id")
+    List<Book> findWithoutIsbn13After(@Param("after") Long after, Limit limit);
+
+    // Must be consumed inside a transaction; rows are fetched from the cursor in chunks of the fetch size.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT b FROM Book b ORDER BY b.id")
+    Stream<Book> streamAll();
+}
@@ -0,0 +1,12 @@
+package com.example.librarymanagementsystem.repositories;
+
+import com.example.librarymanagementsystem.models.Book;
+
+import java.util.List;
+
+public interface BookRepositoryCustom {
+
+    // Returns up to `limit` books ordered by `sort` that come strictly after `cursor`.
+    // A null cursor starts from the first page.
+    List<Book> findPageAfter(BookSort sort, Book cursor, int limit);
+}
@@ -0,0 +1,59 @@
+package com.example.librarymanagementsystem.repositories;
+
+import com.example.librarymanagementsystem.models.Book;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Keyset pagination: instead of OFFSET, every page continues from the (sort value, id)
+// of the last row of the previous page, so the cost of a page does not grow with its depth.
+// Books without a value for the sort column are listed last, ordered by id.
+public class BookRepositoryImpl implements BookRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Book> findPageAfter(BookSort sort, Book cursor, int limit) {
+        if (sort == BookSort.ID) {
+            return entityManager
+                    .createQuery("SELECT b FROM Book b WHERE b.id > :id ORDER BY b.id", Book.class)
+                    .setParameter("id", cursor == null ? 0L : cursor.getId())
+                    .setMaxResults(limit)
+                    .getResultList();
+        }
+
+        String column = "b." + sort.getProperty();
+        Object cursorValue = cursor == null ? null : sort.valueOf(cursor);
+        List<Book> page = new ArrayList<>(limit);
+
+        if (cursor == null) {
+            page.addAll(entityManager
+                    .createQuery("SELECT b FROM Book b WHERE " + column + " IS NOT NULL"
+                            + " ORDER BY " + column + ", b.id", Book.class)
+                    .setMaxResults(limit)
+                    .getResultList());
+        } else if (cursorValue != null) {
+            page.addAll(entityManager
+                    .createQuery("SELECT b FROM Book b WHERE (" + column + ", b.id) > (:value, :id)"
+                            + " ORDER BY " + column + ", b.id", Book.class)
+                    .setParameter("value", cursorValue)
+                    .setParameter("id", cursor.getId())
+                    .setMaxResults(limit)
+                    .getResultList());
+        }
+
+        if (page.size() < limit) {
+            long afterId = cursor != null && cursorValue == null ? cursor.getId() : 0L;
+            page.addAll(entityManager
+                    .createQuery("SELECT b FROM Book b WHERE " + column + " IS NULL AND b.id > :id"
+                            + " ORDER BY b.id", Book.class)
+                    .setParameter("id", afterId)
+                    .setMaxResults(limit - page.size())
+                    .getResultList());
+        }
+        return page;
+    }
+}
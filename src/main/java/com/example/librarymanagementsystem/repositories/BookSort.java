@@ -0,0 +1,38 @@
+package com.example.librarymanagementsystem.repositories;
+
+import com.example.librarymanagementsystem.models.Book;
+
+import java.util.function.Function;
+
+// Sort orders supported by the keyset-paginated catalog listing.
+// Every order is backed by a (column, id) index so each page is a range scan.
+public enum BookSort {
+    ID("id", Book::getId),
+    TITLE("title", Book::getTitle),
+    AUTHOR("author", Book::getAuthor);
+
+    private final String property;
+    private final Function<Book, Object> extractor;
+
+    BookSort(String property, Function<Book, Object> extractor) {
+        this.property = property;
+        this.extractor = extractor;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public Object valueOf(Book book) {
+        return extractor.apply(book);
+    }
+
+    public static BookSort from(String value) {
+        for (BookSort sort : values()) {
+            if (sort.property.equalsIgnoreCase(value)) {
+                return sort;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported sort: " + value);
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.librarymanagementsystem.repositories;
+
+import com.example.librarymanagementsystem.models.DailyCirculation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface DailyCirculationRepository extends JpaRepository<DailyCirculation, LocalDate> {
+
+    List<DailyCirculation> findByDayBetweenOrderByDay(LocalDate from, LocalDate to);
+
+    // Per-day totals of the borrowing history as (day, count) pairs, for the one-off backfill.
+    @Query("SELECT CAST(br.borrowingDate AS LocalDate), COUNT(br) FROM BorrowingRecord br "
+            + "GROUP BY CAST(br.borrowingDate AS LocalDate)")
+    List<Object[]> countBorrowsPerDay();
+
+    @Query("SELECT CAST(br.returnDate AS LocalDate), COUNT(br) FROM BorrowingRecord br "
+            + "WHERE br.returnDate IS NOT NULL GROUP BY CAST(br.returnDate AS LocalDate)")
+    List<Object[]> countReturnsPerDay();
+}
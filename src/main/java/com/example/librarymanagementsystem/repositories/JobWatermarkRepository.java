@@ -0,0 +1,7 @@
+package com.example.librarymanagementsystem.repositories;
+
+import com.example.librarymanagementsystem.models.JobWatermark;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface JobWatermarkRepository extends JpaRepository<JobWatermark, String> {
+}
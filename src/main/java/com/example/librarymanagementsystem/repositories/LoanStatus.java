@@ -0,0 +1,35 @@
+package com.example.librarymanagementsystem.repositories;
+
+// Filter of a patron's loan history: still borrowed, already returned, or both.
+public enum LoanStatus {
+    ACTIVE("active", true, false),
+    RETURNED("returned", false, true),
+    ALL("all", true, true);
+
+    private final String value;
+    private final boolean includesActive;
+    private final boolean includesReturned;
+
+    LoanStatus(String value, boolean includesActive, boolean includesReturned) {
+        this.value = value;
+        this.includesActive = includesActive;
+        this.includesReturned = includesReturned;
+    }
+
+    public boolean includesActive() {
+        return includesActive;
+    }
+
+    public boolean includesReturned() {
+        return includesReturned;
+    }
+
+    public static LoanStatus from(String value) {
+        for (LoanStatus status : values()) {
+            if (status.value.equalsIgnoreCase(value)) {
+                return status;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported status: " + value);
+    }
+}
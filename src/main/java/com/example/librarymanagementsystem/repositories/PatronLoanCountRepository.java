@@ -0,0 +1,15 @@
+package com.example.librarymanagementsystem.repositories;
+
+import com.example.librarymanagementsystem.models.PatronLoanCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+public interface PatronLoanCountRepository extends JpaRepository<PatronLoanCount, Long> {
+
+    // One-off backfill from the open loans, for databases that predate the statistics.
+    @Modifying
+    @Query("INSERT INTO PatronLoanCount (patronId, activeLoans, version) "
+            + "SELECT a.patronId, COUNT(a), 0L FROM ActiveLoan a GROUP BY a.patronId")
+    int createFromActiveLoans();
+}
@@ -1,11 +1,32 @@
 package com.example.librarymanagementsystem.repositories;
 
+import com.example.librarymanagementsystem.Dto.PatronSummaryDto;
+import com.example.librarymanagementsystem.config.CacheConfig;
 import com.example.librarymanagementsystem.models.Patron;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface PatronRepository extends JpaRepository<Patron, Long> {
 
+    // Cached (email -> patron id, the patron itself comes from the entity cache). Any insert, update or
+    // delete of a patron invalidates every cached result.
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheConfig.PATRON_BY_EMAIL_REGION)})
     Optional<Patron> findByEmail(String email);
-}
\ No newline at end of file
+
+    // Keyset page in id order; emailPattern is a LIKE pattern (e.g. "anna%") or null for all patrons.
+    @Query("SELECT new com.example.librarymanagementsystem.Dto.PatronSummaryDto(p.id, p.firstname, p.lastname, p.email, p.role) "
+            + "FROM Patron p WHERE p.id > :after AND (:emailPattern IS NULL OR p.email LIKE :emailPattern ESCAPE '\\') "
+            + "ORDER BY p.id")
+    List<PatronSummaryDto> findSummariesAfter(@Param("after") long after,
+                                              @Param("emailPattern") String emailPattern,
+                                              Limit limit);
+}
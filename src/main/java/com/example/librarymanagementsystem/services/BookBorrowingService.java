@@ -1,37 +1,156 @@
 package com.example.librarymanagementsystem.services;
 
+import com.example.librarymanagementsystem.Dto.BatchItemResultDto;
+import com.example.librarymanagementsystem.Dto.CursorPageDto;
+import com.example.librarymanagementsystem.Dto.LoanDto;
+import com.example.librarymanagementsystem.Dto.LoanRequestDto;
+import com.example.librarymanagementsystem.events.EventType;
+import com.example.librarymanagementsystem.events.LoanPayload;
+import com.example.librarymanagementsystem.events.OutboxPublisher;
+import com.example.librarymanagementsystem.models.ActiveLoan;
 import com.example.librarymanagementsystem.models.Book;
 import com.example.librarymanagementsystem.models.BorrowingRecord;
 import com.example.librarymanagementsystem.models.Patron;
+import com.example.librarymanagementsystem.repositories.ActiveLoanRepository;
 import com.example.librarymanagementsystem.repositories.BookBorrowingRepository;
+import com.example.librarymanagementsystem.repositories.BookInventoryRepository;
 import com.example.librarymanagementsystem.repositories.BookRepository;
+import com.example.librarymanagementsystem.repositories.LoanStatus;
 import com.example.librarymanagementsystem.repositories.PatronRepository;
-import jakarta.transaction.Transactional;
+import com.example.librarymanagementsystem.util.NdjsonWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class BookBorrowingService {
 
+    public static final int MAX_BATCH_SIZE = 500;
+
+    private static final String NO_COPIES_AVAILABLE = "No copies of this book are available.";
+    private static final String NOT_RETURNED_YET = "Book has not been returned yet.";
+
+    Logger logger = LoggerFactory.getLogger(BookBorrowingService.class);
+
     @Autowired
     private BookBorrowingRepository bookBorrowingRepository;
 
     @Autowired
     private BookRepository bookRepository;
 
+    @Autowired
+    private BookInventoryRepository bookInventoryRepository;
+
     @Autowired
     private PatronRepository patronRepository;
 
+    @Autowired
+    private ActiveLoanRepository activeLoanRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private LoanPolicy loanPolicy;
+
+    @Autowired
+    private CirculationStatsService circulationStatsService;
+
+    @Autowired
+    private OutboxPublisher outboxPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
     public List<BorrowingRecord> findAll() {
         return bookBorrowingRepository.findAll();
     }
 
+    // Loan rows are projected to DTOs, so nothing accumulates in the persistence context.
+    @Transactional(readOnly = true)
+    public void exportLoans(OutputStream out) throws IOException {
+        try (NdjsonWriter writer = new NdjsonWriter(objectMapper, out);
+             Stream<LoanDto> loans = bookBorrowingRepository.streamAllLoans()) {
+            loans.forEach(writer::write);
+        }
+    }
+
+    // One page of a patron's loans, newest first. The cursor is the id of the last loan of the previous
+    // page; its borrowing date positions the next page in the (patron_id, borrowing_date, id) index.
+    @Transactional(readOnly = true)
+    public CursorPageDto<LoanDto> findPatronLoans(Long patronId, LoanStatus status, Long after, int limit) {
+        if (!patronRepository.existsById(patronId)) {
+            throw new NoSuchElementException("Patron not found with id: " + patronId);
+        }
+        int pageSize = Math.min(Math.max(limit, 1), PatronService.MAX_PAGE_SIZE);
+
+        List<LoanDto> loans;
+        if (after == null) {
+            loans = bookBorrowingRepository.findPatronLoans(patronId, status.includesActive(),
+                    status.includesReturned(), Limit.of(pageSize + 1));
+        } else {
+            BorrowingRecord cursor = bookBorrowingRepository.findById(after)
+                    .filter(record -> record.getBorrowedBy().getId().equals(patronId))
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown cursor: " + after));
+            loans = bookBorrowingRepository.findPatronLoansAfter(patronId, status.includesActive(),
+                    status.includesReturned(), cursor.getBorrowingDate(), cursor.getId(), Limit.of(pageSize + 1));
+        }
+
+        // One extra row tells whether there is a next page without a count query.
+        Long nextCursor = null;
+        if (loans.size() > pageSize) {
+            loans = new ArrayList<>(loans.subList(0, pageSize));
+            nextCursor = loans.get(pageSize - 1).getId();
+        }
+        return CursorPageDto.<LoanDto>builder()
+                .items(loans)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    // Loans opened before active_loan existed are copied over on the first start with an empty table.
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(1)
+    @Transactional
+    public void createMissingActiveLoans() {
+        if (activeLoanRepository.count() == 0) {
+            int created = activeLoanRepository.createFromOpenRecords();
+            if (created > 0) {
+                logger.info("Created {} active loans from open borrowing records", created);
+            }
+        }
+    }
+
     public BorrowingRecord findById(Long id) {
         return bookBorrowingRepository.findById(id).orElse(null);
     }
@@ -44,43 +163,310 @@ public class BookBorrowingService {
         bookBorrowingRepository.deleteById(id);
     }
 
+    // A conditional update that checks everything and takes a copy, then the record and active loan
+    // inserts. Book and patron are referenced by id only; nothing is read unless the borrow is refused.
     @Transactional
     public BorrowingRecord borrowBook(Long bookId, Long patronId) {
-        Book book = bookRepository.findById(bookId)
-                .orElseThrow(() -> new NoSuchElementException("Book not found with ID: " + bookId));
-        Patron patron = patronRepository.findById(patronId)
-                .orElseThrow(() -> new NoSuchElementException("Patron not found with ID: " + patronId));
-
-        BorrowingRecord lastBorrowingRecord = bookBorrowingRepository.findLastBorrowingRecord(patronId, bookId);
-
-        if (lastBorrowingRecord != null && lastBorrowingRecord.getReturnDate() == null) {
-            throw new IllegalStateException("Book has not been returned yet.");
+        if (bookInventoryRepository.takeCopyFor(bookId, patronId) == 0) {
+            throw borrowRefusal(bookId, patronId);
         }
 
         BorrowingRecord borrowingRecord = new BorrowingRecord();
-        borrowingRecord.setBorrowedBy(patron);
-        borrowingRecord.setBorrowedBook(book);
+        borrowingRecord.setBorrowedBy(patronRepository.getReferenceById(patronId));
+        borrowingRecord.setBorrowedBook(bookRepository.getReferenceById(bookId));
         borrowingRecord.setBorrowingDate(LocalDateTime.now());
-        return bookBorrowingRepository.save(borrowingRecord);
+        borrowingRecord.setDueDate(loanPolicy.dueDate(borrowingRecord.getBorrowingDate()));
+        bookBorrowingRepository.save(borrowingRecord);
+        entityManager.persist(activeLoan(borrowingRecord, bookId, patronId));
+        flushActiveLoans();
+        outboxPublisher.publish(EventType.BOOK_BORROWED, borrowingRecord.getId(), new LoanPayload(borrowingRecord.getId(),
+                bookId, patronId, borrowingRecord.getBorrowingDate(), borrowingRecord.getDueDate(), null));
+        circulationStatsService.recordBorrow(bookId, patronId, borrowingRecord.getBorrowingDate().toLocalDate());
+        return borrowingRecord;
     }
+
+    // The open loan is found by its unique key and both the loan and the record are then closed by
+    // primary key; the response is built from the loan row instead of reading the record back.
     @Transactional
     public BorrowingRecord returnBook(Long bookId, Long patronId) {
-        Book book = bookRepository.findById(bookId)
-                .orElseThrow(() -> new NoSuchElementException("Book not found with ID: " + bookId));
-        Patron patron = patronRepository.findById(patronId)
-                .orElseThrow(() -> new NoSuchElementException("Patron not found with ID: " + patronId));
+        ActiveLoan activeLoan = activeLoanRepository.findByBookIdAndPatronId(bookId, patronId)
+                .orElseThrow(() -> returnRefusal(bookId, patronId));
+        if (activeLoanRepository.closeLoans(List.of(activeLoan.getRecordId())) == 0) {
+            throw new IllegalStateException("Book has already been returned.");
+        }
 
-        BorrowingRecord lastBorrowingRecord = bookBorrowingRepository.findLastBorrowingRecord(patronId, bookId);
+        LocalDateTime now = LocalDateTime.now();
+        bookBorrowingRepository.closeRecords(List.of(activeLoan.getRecordId()), now);
+        putBackCopies(bookId, 1);
+        outboxPublisher.publish(EventType.BOOK_RETURNED, activeLoan.getRecordId(), new LoanPayload(activeLoan.getRecordId(),
+                bookId, patronId, activeLoan.getBorrowingDate(), activeLoan.getDueDate(), now));
+        circulationStatsService.recordReturn(patronId, now.toLocalDate());
+        return BorrowingRecord.builder()
+                .id(activeLoan.getRecordId())
+                .borrowedBook(bookRepository.getReferenceById(bookId))
+                .borrowedBy(patronRepository.getReferenceById(patronId))
+                .borrowingDate(activeLoan.getBorrowingDate())
+                .dueDate(activeLoan.getDueDate())
+                .returnDate(now)
+                .build();
+    }
 
-        if (lastBorrowingRecord != null && lastBorrowingRecord.getReturnDate() != null) {
-            throw new IllegalStateException("Book has already been returned.");
+    private void flushActiveLoans() {
+        try {
+            entityManager.flush();
+        } catch (PersistenceException e) {
+            // Depending on the path, Hibernate reports the constraint violation as such or wrapped in a
+            // PersistenceException. Here it is the active loan's unique key: the same patron borrowed
+            // the same book concurrently and committed first.
+            if (e instanceof ConstraintViolationException || e.getCause() instanceof ConstraintViolationException) {
+                throw new IllegalStateException(NOT_RETURNED_YET);
+            }
+            throw e;
+        }
+    }
+
+    // Only reached when the conditional update matched no row: works out which check failed.
+    private RuntimeException borrowRefusal(Long bookId, Long patronId) {
+        if (!bookRepository.existsById(bookId)) {
+            return new NoSuchElementException("Book not found with ID: " + bookId);
+        }
+        if (!patronRepository.existsById(patronId)) {
+            return new NoSuchElementException("Patron not found with ID: " + patronId);
+        }
+        if (activeLoanRepository.existsByBookIdAndPatronId(bookId, patronId)) {
+            return new IllegalStateException(NOT_RETURNED_YET);
         }
+        return new IllegalStateException(NO_COPIES_AVAILABLE);
+    }
+
+    private RuntimeException returnRefusal(Long bookId, Long patronId) {
+        if (!bookRepository.existsById(bookId)) {
+            return new NoSuchElementException("Book not found with ID: " + bookId);
+        }
+        if (!patronRepository.existsById(patronId)) {
+            return new NoSuchElementException("Patron not found with ID: " + patronId);
+        }
+        if (bookBorrowingRepository.findLastBorrowingRecord(patronId, bookId) == null) {
+            return new IllegalStateException("Book has not been borrowed by this patron.");
+        }
+        return new IllegalStateException("Book has already been returned.");
+    }
 
-        assert lastBorrowingRecord != null;
+    // Borrows a stack of books in one transaction: books, patrons and open loans are loaded with
+    // one IN query each and the new records are inserted in JDBC batches. Every item gets its own
+    // result; a failing item does not prevent the others from being borrowed.
+    @Transactional
+    public List<BatchItemResultDto> borrowBooks(List<LoanRequestDto> requests) {
+        BatchContext context = loadBatchContext(requests);
+        Set<LoanKey> openLoans = new HashSet<>(context.openLoans.keySet());
+
+        List<BatchItemResultDto> results = new ArrayList<>(Collections.nCopies(requests.size(), null));
+        List<Integer> accepted = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            LoanRequestDto request = requests.get(i);
+            BatchItemResultDto result = context.validate(request);
+            if (result == null && !openLoans.add(new LoanKey(request.getBookId(), request.getPatronId()))) {
+                result = result(request, 400, NOT_RETURNED_YET);
+            }
+            if (result == null) {
+                accepted.add(i);
+            } else {
+                results.set(i, result);
+            }
+        }
+
+        // Copies are taken in book id order so that concurrent batches lock inventory rows in the
+        // same order and cannot deadlock each other.
+        accepted.sort(Comparator.comparing(i -> requests.get(i).getBookId()));
+        List<Integer> createdItems = new ArrayList<>();
+        List<BorrowingRecord> createdRecords = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i : accepted) {
+            LoanRequestDto request = requests.get(i);
+            if (bookInventoryRepository.takeCopy(request.getBookId()) == 0) {
+                results.set(i, result(request, 400, NO_COPIES_AVAILABLE));
+                continue;
+            }
+            BorrowingRecord borrowingRecord = new BorrowingRecord();
+            borrowingRecord.setBorrowedBook(context.books.get(request.getBookId()));
+            borrowingRecord.setBorrowedBy(context.patrons.get(request.getPatronId()));
+            borrowingRecord.setBorrowingDate(now);
+            borrowingRecord.setDueDate(loanPolicy.dueDate(now));
+            createdItems.add(i);
+            createdRecords.add(borrowingRecord);
+        }
+        dropConcurrentLoans(requests, results, createdItems, createdRecords);
 
-        lastBorrowingRecord.setReturnDate(LocalDateTime.now());
+        bookBorrowingRepository.saveAll(createdRecords);
+        for (int k = 0; k < createdRecords.size(); k++) {
+            BorrowingRecord borrowingRecord = createdRecords.get(k);
+            BatchItemResultDto result = result(requests.get(createdItems.get(k)), 201, null);
+            result.setRecordId(borrowingRecord.getId());
+            results.set(createdItems.get(k), result);
+            entityManager.persist(activeLoan(borrowingRecord, borrowingRecord.getBorrowedBook().getId(),
+                    borrowingRecord.getBorrowedBy().getId()));
+            outboxPublisher.publish(EventType.BOOK_BORROWED, borrowingRecord.getId(), new LoanPayload(borrowingRecord.getId(),
+                    borrowingRecord.getBorrowedBook().getId(), borrowingRecord.getBorrowedBy().getId(), now,
+                    borrowingRecord.getDueDate(), null));
+            circulationStatsService.recordBorrow(borrowingRecord.getBorrowedBook().getId(),
+                    borrowingRecord.getBorrowedBy().getId(), now.toLocalDate());
+        }
+        flushActiveLoans();
+        return results;
+    }
 
-        return bookBorrowingRepository.save(lastBorrowingRecord);
+    // The open loans were read before the copies were taken. A concurrent borrow of one of these
+    // books holds its inventory row until it commits, so once takeCopy got every row, reading the
+    // open loans again shows the loans such borrows opened; those items are refused on their own
+    // and their copies put back.
+    private void dropConcurrentLoans(List<LoanRequestDto> requests, List<BatchItemResultDto> results,
+                                     List<Integer> createdItems, List<BorrowingRecord> createdRecords) {
+        if (createdItems.isEmpty()) {
+            return;
+        }
+        Set<Long> bookIds = new HashSet<>();
+        Set<Long> patronIds = new HashSet<>();
+        for (int i : createdItems) {
+            bookIds.add(requests.get(i).getBookId());
+            patronIds.add(requests.get(i).getPatronId());
+        }
+        Set<LoanKey> openLoans = activeLoanRepository.findOpenLoans(bookIds, patronIds).stream()
+                .map(activeLoan -> new LoanKey(activeLoan.getBookId(), activeLoan.getPatronId()))
+                .collect(Collectors.toSet());
+        for (int k = createdItems.size() - 1; k >= 0; k--) {
+            LoanRequestDto request = requests.get(createdItems.get(k));
+            if (openLoans.contains(new LoanKey(request.getBookId(), request.getPatronId()))) {
+                putBackCopies(request.getBookId(), 1);
+                results.set(createdItems.get(k), result(request, 400, NOT_RETURNED_YET));
+                createdItems.remove(k);
+                createdRecords.remove(k);
+            }
+        }
     }
 
+    // Returns a stack of books in one transaction: the loans and the records are each closed with
+    // a single statement.
+    @Transactional
+    public List<BatchItemResultDto> returnBooks(List<LoanRequestDto> requests) {
+        BatchContext context = loadBatchContext(requests);
+
+        List<BatchItemResultDto> results = new ArrayList<>(requests.size());
+        List<ActiveLoan> returnedLoans = new ArrayList<>();
+        List<Long> returnedRecordIds = new ArrayList<>();
+        Map<Long, Integer> returnedCopies = new TreeMap<>();
+        for (LoanRequestDto request : requests) {
+            BatchItemResultDto result = context.validate(request);
+            if (result == null) {
+                ActiveLoan activeLoan = context.openLoans.remove(new LoanKey(request.getBookId(), request.getPatronId()));
+                if (activeLoan == null) {
+                    result = result(request, 400, "Book has already been returned.");
+                } else {
+                    returnedLoans.add(activeLoan);
+                    returnedRecordIds.add(activeLoan.getRecordId());
+                    returnedCopies.merge(request.getBookId(), 1, Integer::sum);
+                    result = result(request, 200, null);
+                    result.setRecordId(activeLoan.getRecordId());
+                }
+            }
+            results.add(result);
+        }
+
+        if (!returnedRecordIds.isEmpty()) {
+            if (activeLoanRepository.closeLoans(returnedRecordIds) != returnedRecordIds.size()) {
+                throw new IllegalStateException("Some of the books were returned concurrently; please retry.");
+            }
+            LocalDateTime now = LocalDateTime.now();
+            bookBorrowingRepository.closeRecords(returnedRecordIds, now);
+            // One update per title, in book id order like borrowBooks.
+            returnedCopies.forEach(this::putBackCopies);
+            for (ActiveLoan activeLoan : returnedLoans) {
+                outboxPublisher.publish(EventType.BOOK_RETURNED, activeLoan.getRecordId(), new LoanPayload(
+                        activeLoan.getRecordId(), activeLoan.getBookId(), activeLoan.getPatronId(),
+                        activeLoan.getBorrowingDate(), activeLoan.getDueDate(), now));
+                circulationStatsService.recordReturn(activeLoan.getPatronId(), now.toLocalDate());
+            }
+        }
+        return results;
+    }
+
+    // A return is never refused because of the inventory; a mismatch (e.g. loans that predate
+    // the inventory) is only logged.
+    private void putBackCopies(Long bookId, int count) {
+        if (bookInventoryRepository.returnCopies(bookId, count) == 0) {
+            logger.warn("Inventory of book {} already has all copies available; {} returned copies not counted", bookId, count);
+        }
+    }
+
+    private static ActiveLoan activeLoan(BorrowingRecord borrowingRecord, Long bookId, Long patronId) {
+        return ActiveLoan.builder()
+                .recordId(borrowingRecord.getId())
+                .bookId(bookId)
+                .patronId(patronId)
+                .borrowingDate(borrowingRecord.getBorrowingDate())
+                .dueDate(borrowingRecord.getDueDate())
+                .build();
+    }
+
+    private BatchContext loadBatchContext(List<LoanRequestDto> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("At least one book must be given");
+        }
+        if (requests.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_SIZE + " books can be processed at once");
+        }
+
+        Set<Long> bookIds = new HashSet<>();
+        Set<Long> patronIds = new HashSet<>();
+        for (LoanRequestDto request : requests) {
+            if (request.getBookId() != null && request.getPatronId() != null) {
+                bookIds.add(request.getBookId());
+                patronIds.add(request.getPatronId());
+            }
+        }
+
+        BatchContext context = new BatchContext();
+        context.books = bookRepository.findAllById(bookIds).stream()
+                .collect(Collectors.toMap(Book::getId, Function.identity()));
+        context.patrons = patronRepository.findAllById(patronIds).stream()
+                .collect(Collectors.toMap(Patron::getId, Function.identity()));
+        context.openLoans = new HashMap<>();
+        if (!bookIds.isEmpty()) {
+            for (ActiveLoan activeLoan : activeLoanRepository.findOpenLoans(bookIds, patronIds)) {
+                context.openLoans.put(new LoanKey(activeLoan.getBookId(), activeLoan.getPatronId()), activeLoan);
+            }
+        }
+        return context;
+    }
+
+    private static BatchItemResultDto result(LoanRequestDto request, int status, String message) {
+        return BatchItemResultDto.builder()
+                .bookId(request.getBookId())
+                .patronId(request.getPatronId())
+                .status(status)
+                .message(message)
+                .build();
+    }
+
+    private record LoanKey(Long bookId, Long patronId) {
+    }
+
+    private static class BatchContext {
+        private Map<Long, Book> books;
+        private Map<Long, Patron> patrons;
+        private Map<LoanKey, ActiveLoan> openLoans;
+
+        // Returns the failed result for a request that cannot be processed, or null when it can.
+        private BatchItemResultDto validate(LoanRequestDto request) {
+            if (request.getBookId() == null || request.getPatronId() == null) {
+                return result(request, 400, "Both bookId and patronId are required.");
+            }
+            if (!books.containsKey(request.getBookId())) {
+                return result(request, 404, "Book not found with ID: " + request.getBookId());
+            }
+            if (!patrons.containsKey(request.getPatronId())) {
+                return result(request, 404, "Patron not found with ID: " + request.getPatronId());
+            }
+            return null;
+        }
+    }
 }
@@ -0,0 +1,29 @@
+package com.example.librarymanagementsystem.services;
+
+public enum BookImportFormat {
+    // Header row with any of: title, author, isbn, publication_year (yyyy-MM-dd or yyyy), copies
+    CSV,
+    // One JSON book per line, with the same fields as POST /api/books plus an optional copies
+    NDJSON;
+
+    public static BookImportFormat fromFileName(String fileName) {
+        String name = fileName.toLowerCase();
+        if (name.endsWith(".csv")) {
+            return CSV;
+        }
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl") || name.endsWith(".json")) {
+            return NDJSON;
+        }
+        throw new IllegalArgumentException("Unsupported import file: " + fileName);
+    }
+
+    public static BookImportFormat fromContentType(String contentType) {
+        if (contentType != null && contentType.startsWith("text/csv")) {
+            return CSV;
+        }
+        if (contentType != null && contentType.startsWith("application/x-ndjson")) {
+            return NDJSON;
+        }
+        throw new IllegalArgumentException("Unsupported import content type: " + contentType);
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.librarymanagementsystem.services;
+
+import com.example.librarymanagementsystem.Dto.BookImportReportDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Bulk catalog import from the command line, exiting when done:
+// java -jar app.jar --spring.main.web-application-type=none --import-books=books.csv
+@Component
+public class BookImportRunner implements ApplicationRunner {
+
+    Logger logger = LoggerFactory.getLogger(BookImportRunner.class);
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookImportService bookImportService;
+
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (!args.containsOption("import-books")) {
+            return;
+        }
+        // Runners start before ApplicationReadyEvent; the importer needs the ISBN index for duplicates.
+        bookService.buildSearchIndex();
+        for (String file : args.getOptionValues("import-books")) {
+            try (InputStream in = Files.newInputStream(Path.of(file))) {
+                BookImportReportDto report = bookImportService.importBooks(in, BookImportFormat.fromFileName(file));
+                logger.info("{}: {} imported, {} rejected", file, report.getImported(), report.getRejected());
+                report.getErrors().forEach(error ->
+                        logger.warn("{}:{}: {}", file, error.getLine(), error.getMessage()));
+            }
+        }
+        System.exit(SpringApplication.exit(context, () -> 0));
+    }
+}
@@ -0,0 +1,287 @@
+package com.example.librarymanagementsystem.services;
+
+import com.example.librarymanagementsystem.Dto.BookImportErrorDto;
+import com.example.librarymanagementsystem.Dto.BookImportReportDto;
+import com.example.librarymanagementsystem.events.BookPayload;
+import com.example.librarymanagementsystem.events.EventType;
+import com.example.librarymanagementsystem.events.OutboxPublisher;
+import com.example.librarymanagementsystem.models.Book;
+import com.example.librarymanagementsystem.models.BookInventory;
+import com.example.librarymanagementsystem.util.Isbn;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Streams a catalog file into the database: the input is read line by line, every row is
+// validated on its own and valid rows are inserted in batches, one transaction per batch.
+// Invalid rows are reported with their line number and never abort the import.
+//
+// Under open-in-view every transaction of the request shares one persistence context, so it is
+// cleared after each batch: memory then stays bounded by the batch size, and a commit does not
+// dirty-check the books of the batches before it.
+@Service
+public class BookImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    Logger logger = LoggerFactory.getLogger(BookImportService.class);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private BookSearchIndex bookSearchIndex;
+
+    @Autowired
+    private OutboxPublisher outboxPublisher;
+
+    @Value("${library.import.batch-size:1000}")
+    private int batchSize;
+
+    public BookImportReportDto importBooks(InputStream in, BookImportFormat format) throws IOException {
+        long start = System.currentTimeMillis();
+        BookImportReportDto report = BookImportReportDto.builder().build();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        ObjectReader treeReader = objectMapper.reader();
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        long lineNumber = 0;
+        Map<String, Integer> csvColumns = null;
+        if (format == BookImportFormat.CSV) {
+            String header = reader.readLine();
+            lineNumber++;
+            if (header == null) {
+                return report;
+            }
+            csvColumns = parseCsvHeader(header);
+        }
+
+        List<ImportRow> batch = new ArrayList<>(batchSize);
+        Set<String> batchIsbns = new HashSet<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                ImportRow row = format == BookImportFormat.CSV
+                        ? parseCsvRow(lineNumber, line, csvColumns)
+                        : parseJsonRow(lineNumber, treeReader.readTree(line));
+                validate(row, batchIsbns);
+                batch.add(row);
+            } catch (JsonProcessingException e) {
+                reject(report, lineNumber, "Malformed JSON: " + e.getOriginalMessage());
+            } catch (RuntimeException e) {
+                reject(report, lineNumber, e.getMessage());
+            }
+
+            if (batch.size() >= batchSize) {
+                insertBatch(transactionTemplate, batch, report);
+                batchIsbns.clear();
+            }
+        }
+        insertBatch(transactionTemplate, batch, report);
+
+        logger.info("Imported {} books ({} rejected) in {} ms",
+                report.getImported(), report.getRejected(), System.currentTimeMillis() - start);
+        return report;
+    }
+
+    private void validate(ImportRow row, Set<String> batchIsbns) {
+        if (row.copies() < 0) {
+            throw new IllegalArgumentException("copies must be zero or more");
+        }
+        Book book = row.book();
+        book.setId(null);
+        Set<ConstraintViolation<Book>> violations = validator.validate(book);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .collect(Collectors.joining(", ")));
+        }
+
+        book.setIsbn13(Isbn.toIsbn13(book.getIsbn()));
+        // Books committed earlier, by this import or otherwise, are already in the ISBN map.
+        if (book.getIsbn13() != null
+                && (bookSearchIndex.findIdByIsbn13(book.getIsbn13()) != null || !batchIsbns.add(book.getIsbn13()))) {
+            throw new IllegalArgumentException("Duplicate ISBN: " + book.getIsbn());
+        }
+    }
+
+    private void insertBatch(TransactionTemplate transactionTemplate, List<ImportRow> batch, BookImportReportDto report) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> persistAll(batch));
+            batch.forEach(row -> bookSearchIndex.index(row.book()));
+            report.setImported(report.getImported() + batch.size());
+        } catch (RuntimeException batchFailure) {
+            // A row the checks above could not catch (e.g. an ISBN inserted concurrently) failed the
+            // whole batch; retry its rows one by one so only the offending ones are rejected.
+            entityManager.clear();
+            for (ImportRow row : batch) {
+                try {
+                    row.book().setId(null);
+                    transactionTemplate.executeWithoutResult(status -> persistAll(List.of(row)));
+                    bookSearchIndex.index(row.book());
+                    report.setImported(report.getImported() + 1);
+                } catch (RuntimeException e) {
+                    entityManager.clear();
+                    reject(report, row.line(), "Could not be stored: " + e.getMessage());
+                }
+            }
+        }
+        batch.clear();
+    }
+
+    // Flushed and cleared before the commit, so nothing of the batch stays in the persistence context.
+    private void persistAll(List<ImportRow> rows) {
+        rows.forEach(this::persist);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private void persist(ImportRow row) {
+        entityManager.persist(row.book());
+        entityManager.persist(BookInventory.builder()
+                .bookId(row.book().getId())
+                .totalCopies(row.copies())
+                .availableCopies(row.copies())
+                .build());
+        outboxPublisher.publish(EventType.BOOK_CREATED, row.book().getId(), BookPayload.of(row.book()));
+    }
+
+    private static void reject(BookImportReportDto report, long line, String message) {
+        report.setRejected(report.getRejected() + 1);
+        if (report.getErrors().size() < MAX_REPORTED_ERRORS) {
+            report.getErrors().add(BookImportErrorDto.builder().line(line).message(message).build());
+        }
+    }
+
+    private static Map<String, Integer> parseCsvHeader(String header) {
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = parseCsvLine(header);
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        return columns;
+    }
+
+    private static ImportRow parseCsvRow(long lineNumber, String line, Map<String, Integer> columns) {
+        List<String> fields = parseCsvLine(line);
+        String publicationYear = field(fields, columns, "publication_year");
+        String copies = field(fields, columns, "copies");
+        Book book = Book.builder()
+                .title(field(fields, columns, "title"))
+                .author(field(fields, columns, "author"))
+                .isbn(field(fields, columns, "isbn"))
+                .publication_year(publicationYear == null ? null : parseDate(publicationYear))
+                .build();
+        return new ImportRow(lineNumber, book,
+                copies == null ? BookInventoryService.DEFAULT_COPIES : Integer.parseInt(copies));
+    }
+
+    // The book fields are bound as in POST /api/books; "copies" is an extra, optional field.
+    private ImportRow parseJsonRow(long lineNumber, JsonNode node) throws JsonProcessingException {
+        JsonNode copiesNode = node.path("copies");
+        int copies = BookInventoryService.DEFAULT_COPIES;
+        if (!copiesNode.isMissingNode() && !copiesNode.isNull()) {
+            if (!copiesNode.canConvertToInt()) {
+                throw new IllegalArgumentException("copies must be a number");
+            }
+            copies = copiesNode.asInt();
+        }
+        return new ImportRow(lineNumber, objectMapper.treeToValue(node, Book.class), copies);
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static Date parseDate(String value) {
+        LocalDate date = value.length() == 4
+                ? LocalDate.of(Integer.parseInt(value), 1, 1)
+                : LocalDate.parse(value);
+        return Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+
+    // RFC 4180 fields on a single line: comma separated, optionally quoted, "" escapes a quote.
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private record ImportRow(long line, Book book, int copies) {
+    }
+}
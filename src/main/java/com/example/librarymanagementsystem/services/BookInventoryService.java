@@ -0,0 +1,113 @@
+package com.example.librarymanagementsystem.services;
+
+import com.example.librarymanagementsystem.Dto.BookAvailabilityDto;
+import com.example.librarymanagementsystem.models.BookInventory;
+import com.example.librarymanagementsystem.repositories.BookInventoryRepository;
+import com.example.librarymanagementsystem.repositories.BookRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+@Service
+public class BookInventoryService {
+
+    public static final int DEFAULT_COPIES = 1;
+
+    Logger logger = LoggerFactory.getLogger(BookInventoryService.class);
+
+    @Autowired
+    private BookInventoryRepository bookInventoryRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    // Books stored before inventory existed get one copy each, so they stay borrowable.
+    // Runs after BookBorrowingService.createMissingActiveLoans, which it relies on to see open loans.
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(2)
+    @Transactional
+    public void createMissingInventory() {
+        int created = bookInventoryRepository.createMissing();
+        if (created > 0) {
+            logger.info("Created inventory for {} books", created);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public BookInventory findByBookId(Long bookId) {
+        return bookInventoryRepository.findById(bookId)
+                .orElseThrow(() -> new NoSuchElementException("Book not found with ID: " + bookId));
+    }
+
+    // Availability is a primary key read of the inventory row, independent of the loan history.
+    @Transactional(readOnly = true)
+    public BookAvailabilityDto findAvailability(Long bookId) {
+        return toAvailability(findByBookId(bookId));
+    }
+
+    // Books without inventory (i.e. unknown ids) are left out of the result.
+    @Transactional(readOnly = true)
+    public List<BookAvailabilityDto> findAvailability(Collection<Long> bookIds) {
+        if (bookIds == null || bookIds.isEmpty()) {
+            throw new IllegalArgumentException("At least one book id must be given");
+        }
+        if (bookIds.size() > BookService.MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("At most " + BookService.MAX_PAGE_SIZE + " books can be checked at once");
+        }
+        return bookInventoryRepository.findAllById(bookIds).stream()
+                .map(BookInventoryService::toAvailability)
+                .toList();
+    }
+
+    private static BookAvailabilityDto toAvailability(BookInventory inventory) {
+        return BookAvailabilityDto.builder()
+                .bookId(inventory.getBookId())
+                .totalCopies(inventory.getTotalCopies())
+                .availableCopies(inventory.getAvailableCopies())
+                .onLoan(inventory.getTotalCopies() - inventory.getAvailableCopies())
+                .available(inventory.getAvailableCopies() > 0)
+                .build();
+    }
+
+    public void createIfAbsent(Long bookId, int copies) {
+        if (!bookInventoryRepository.existsById(bookId)) {
+            bookInventoryRepository.save(BookInventory.builder()
+                    .bookId(bookId)
+                    .totalCopies(copies)
+                    .availableCopies(copies)
+                    .build());
+        }
+    }
+
+    @Transactional
+    public BookInventory setTotalCopies(Long bookId, Integer totalCopies) {
+        if (totalCopies == null || totalCopies < 0) {
+            throw new IllegalArgumentException("totalCopies must be zero or more");
+        }
+        if (bookInventoryRepository.setTotalCopies(bookId, totalCopies) == 0) {
+            if (!bookRepository.existsById(bookId)) {
+                throw new NoSuchElementException("Book not found with ID: " + bookId);
+            }
+            // A book stored before the startup backfill ran has no inventory yet; create just its row and
+            // retry once. If the row existed, the retry fails again because too many copies are on loan.
+            bookInventoryRepository.createMissingFor(bookId);
+            if (bookInventoryRepository.setTotalCopies(bookId, totalCopies) == 0) {
+                throw new IllegalStateException("More than " + totalCopies + " copies are on loan.");
+            }
+        }
+        return findByBookId(bookId);
+    }
+
+    public void deleteByBookId(Long bookId) {
+        bookInventoryRepository.findById(bookId).ifPresent(bookInventoryRepository::delete);
+    }
+}
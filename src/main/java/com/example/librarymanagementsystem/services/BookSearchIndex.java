@@ -0,0 +1,320 @@
+package com.example.librarymanagementsystem.services;
+
+import com.example.librarymanagementsystem.Dto.BookSearchHitDto;
+import com.example.librarymanagementsystem.models.Book;
+import com.example.librarymanagementsystem.util.Isbn;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+// In-memory inverted index over book titles, authors and ISBNs, plus an exact ISBN-13 -> id map.
+// Reads are lock-free; writes are serialized so a book's postings are always replaced as a whole.
+// BookService keeps it in sync with the database on every save, update and delete.
+@Component
+public class BookSearchIndex {
+
+    private static final int TITLE_WEIGHT = 3;
+    private static final int AUTHOR_WEIGHT = 2;
+    private static final int ISBN_WEIGHT = 10;
+    // Shorter last tokens match whole words only, so a one- or two-letter query cannot expand to a
+    // large part of the vocabulary. Every term a longer prefix matches is merged and ranked.
+    static final int MIN_PREFIX_LENGTH = 3;
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern ISBN_QUERY = Pattern.compile("[0-9Xx][0-9Xx\\- ]{8,}[0-9Xx]");
+    private static final Comparator<BookSearchHitDto> RANKING =
+            Comparator.comparingInt(BookSearchHitDto::getScore).reversed()
+                    .thenComparing(BookSearchHitDto::getTitle, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER))
+                    .thenComparing(BookSearchHitDto::getId);
+
+    // term -> (book id -> weight of the term in that book)
+    private final ConcurrentSkipListMap<String, Map<Long, Integer>> postings = new ConcurrentSkipListMap<>();
+    private final Map<Long, IndexedBook> documents = new ConcurrentHashMap<>();
+    private final Map<String, Long> idsByIsbn13 = new ConcurrentHashMap<>();
+    private final Map<Integer, Set<Long>> idsByYear = new ConcurrentHashMap<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    // Ids removed while a rebuild runs, null otherwise; guarded by writeLock. The rebuild may already
+    // have read their rows, and must not add them back.
+    private Set<Long> removedDuringRebuild;
+
+    public void index(Book book) {
+        writeLock.lock();
+        try {
+            removeDocument(book.getId());
+            addDocument(book);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // A rebuild adds books with indexIfAbsent between startRebuild and finishRebuild.
+    public void startRebuild() {
+        writeLock.lock();
+        try {
+            removedDuringRebuild = new HashSet<>();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void finishRebuild() {
+        writeLock.lock();
+        try {
+            removedDuringRebuild = null;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Used while rebuilding: a live update that raced ahead of the rebuild is not overwritten by older
+    // data, and a book deleted since the rebuild started is not indexed again.
+    public void indexIfAbsent(Book book) {
+        writeLock.lock();
+        try {
+            if (!documents.containsKey(book.getId())
+                    && (removedDuringRebuild == null || !removedDuringRebuild.contains(book.getId()))) {
+                addDocument(book);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        writeLock.lock();
+        try {
+            removeDocument(id);
+            if (removedDuringRebuild != null) {
+                removedDuringRebuild.add(id);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void clear() {
+        writeLock.lock();
+        try {
+            postings.clear();
+            documents.clear();
+            idsByIsbn13.clear();
+            idsByYear.clear();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public Long findIdByIsbn13(String isbn13) {
+        return idsByIsbn13.get(isbn13);
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    // All query tokens must match (the last one, from MIN_PREFIX_LENGTH letters on, may match as a
+    // prefix, for search-as-you-type).
+    // Hits are ranked by the summed weight of the matched fields; prefix matches count half.
+    // The author filter matches words of the author's name the same way. Without a query, candidates
+    // come from the author's or the year's postings, never from a scan of every book, and only the best
+    // `limit` hits are kept while ranking.
+    public List<BookSearchHitDto> search(String query, String author, Integer year, int limit) {
+        boolean hasQuery = query != null && !query.isBlank();
+        List<String> authorTokens = tokenize(author);
+        if (!hasQuery && authorTokens.isEmpty() && year == null) {
+            throw new IllegalArgumentException("A search needs a query, an author or a year.");
+        }
+
+        Map<Long, Integer> scores = hasQuery ? score(query) : null;
+        Iterable<Long> candidates;
+        if (scores != null) {
+            candidates = scores.keySet();
+        } else if (!authorTokens.isEmpty()) {
+            candidates = scoreTokens(authorTokens).keySet();
+        } else {
+            candidates = idsByYear.getOrDefault(year, Set.of());
+        }
+
+        PriorityQueue<BookSearchHitDto> best = new PriorityQueue<>(RANKING.reversed());
+        for (Long id : candidates) {
+            IndexedBook document = documents.get(id);
+            if (document == null
+                    || (year != null && !year.equals(document.year()))
+                    || !document.authorMatches(authorTokens)) {
+                continue;
+            }
+            best.add(document.toHit(scores == null ? 0 : scores.get(id)));
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+        List<BookSearchHitDto> hits = new ArrayList<>(best);
+        hits.sort(RANKING);
+        return hits;
+    }
+
+    private Map<Long, Integer> score(String query) {
+        if (ISBN_QUERY.matcher(query.trim()).matches()) {
+            String isbn13 = Isbn.tryToIsbn13(query);
+            return new HashMap<>(postings.getOrDefault(isbnTerm(isbn13 != null ? isbn13 : query), Map.of()));
+        }
+        return scoreTokens(tokenize(query));
+    }
+
+    private Map<Long, Integer> scoreTokens(List<String> tokens) {
+        Map<Long, Integer> scores = null;
+        for (int i = 0; i < tokens.size(); i++) {
+            Map<Long, Integer> tokenScores = scoreToken(tokens.get(i), i == tokens.size() - 1);
+            if (scores == null) {
+                scores = tokenScores;
+            } else {
+                scores.keySet().retainAll(tokenScores.keySet());
+                scores.replaceAll((id, score) -> score + tokenScores.get(id));
+            }
+            if (scores.isEmpty()) {
+                break;
+            }
+        }
+        return scores == null ? new HashMap<>() : scores;
+    }
+
+    private Map<Long, Integer> scoreToken(String token, boolean allowPrefix) {
+        Map<Long, Integer> scores = new HashMap<>(postings.getOrDefault(token, Map.of()));
+        if (allowPrefix && token.length() >= MIN_PREFIX_LENGTH) {
+            ConcurrentNavigableMap<String, Map<Long, Integer>> expansions =
+                    postings.subMap(token, false, token + Character.MAX_VALUE, false);
+            for (Map<Long, Integer> posting : expansions.values()) {
+                posting.forEach((id, weight) -> scores.merge(id, Math.max(weight / 2, 1), Math::max));
+            }
+        }
+        return scores;
+    }
+
+    private void addDocument(Book book) {
+        Map<String, Integer> terms = new HashMap<>();
+        addTerms(terms, book.getTitle(), TITLE_WEIGHT);
+        addTerms(terms, book.getAuthor(), AUTHOR_WEIGHT);
+        // A book left without isbn13 because another book owns its ISBN is still found by searching for
+        // it, but the ISBN map, like the unique index, only points to the owner.
+        String isbn13 = book.getIsbn13() != null ? book.getIsbn13() : Isbn.tryToIsbn13(book.getIsbn());
+        if (isbn13 != null) {
+            terms.merge(isbnTerm(isbn13), ISBN_WEIGHT, Integer::sum);
+            if (book.getIsbn13() != null) {
+                idsByIsbn13.put(isbn13, book.getId());
+            }
+        } else if (book.getIsbn() != null && !book.getIsbn().isBlank()) {
+            terms.merge(isbnTerm(book.getIsbn()), ISBN_WEIGHT, Integer::sum);
+        }
+
+        Integer year = yearOf(book.getPublication_year());
+        documents.put(book.getId(), new IndexedBook(book.getId(), book.getTitle(), book.getAuthor(),
+                tokenize(book.getAuthor()), book.getIsbn(), isbn13, year, terms.keySet().toArray(String[]::new)));
+        if (year != null) {
+            idsByYear.computeIfAbsent(year, y -> ConcurrentHashMap.newKeySet()).add(book.getId());
+        }
+        terms.forEach((term, weight) ->
+                postings.computeIfAbsent(term, t -> new ConcurrentHashMap<>()).put(book.getId(), weight));
+    }
+
+    private void removeDocument(Long id) {
+        IndexedBook previous = documents.remove(id);
+        if (previous == null) {
+            return;
+        }
+        if (previous.isbn13() != null) {
+            idsByIsbn13.remove(previous.isbn13(), id);
+        }
+        if (previous.year() != null) {
+            Set<Long> ids = idsByYear.get(previous.year());
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                idsByYear.remove(previous.year(), ids);
+            }
+        }
+        for (String term : previous.terms()) {
+            Map<Long, Integer> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(id);
+                if (posting.isEmpty()) {
+                    postings.remove(term, posting);
+                }
+            }
+        }
+    }
+
+    private static void addTerms(Map<String, Integer> terms, String text, int weight) {
+        for (String token : tokenize(text)) {
+            terms.merge(token, weight, Integer::sum);
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static String isbnTerm(String isbn) {
+        // Prefixed with a character the tokenizer never emits, so word queries cannot prefix-match ISBNs.
+        return "#" + isbn.replaceAll("[^0-9Xx]", "").toLowerCase(Locale.ROOT);
+    }
+
+    private static Integer yearOf(Date date) {
+        if (date == null) {
+            return null;
+        }
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTime(date);
+        return calendar.get(Calendar.YEAR);
+    }
+
+    private record IndexedBook(Long id, String title, String author, List<String> authorTokens, String isbn,
+                               String isbn13, Integer year, String[] terms) {
+
+        // Every filter token is a word of the author's name; the last may be the start of one, as in search.
+        boolean authorMatches(List<String> filterTokens) {
+            for (int i = 0; i < filterTokens.size(); i++) {
+                String filterToken = filterTokens.get(i);
+                boolean prefix = i == filterTokens.size() - 1 && filterToken.length() >= MIN_PREFIX_LENGTH;
+                if (authorTokens.stream().noneMatch(token -> prefix ? token.startsWith(filterToken)
+                        : token.equals(filterToken))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        BookSearchHitDto toHit(int score) {
+            return BookSearchHitDto.builder()
+                    .id(id)
+                    .title(title)
+                    .author(author)
+                    .isbn(isbn)
+                    .publicationYear(year)
+                    .score(score)
+                    .build();
+        }
+    }
+}
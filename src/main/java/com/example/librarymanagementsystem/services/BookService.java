@@ -1,43 +1,227 @@
 package com.example.librarymanagementsystem.services;
 
+import com.example.librarymanagementsystem.Dto.BookSearchHitDto;
 import com.example.librarymanagementsystem.Dto.BookUpdateDto;
+import com.example.librarymanagementsystem.Dto.CursorPageDto;
+import com.example.librarymanagementsystem.config.CacheConfig;
+import com.example.librarymanagementsystem.events.BookPayload;
+import com.example.librarymanagementsystem.events.EventType;
+import com.example.librarymanagementsystem.events.OutboxPublisher;
 import com.example.librarymanagementsystem.models.Book;
 import com.example.librarymanagementsystem.models.Patron;
 import com.example.librarymanagementsystem.repositories.BookRepository;
+import com.example.librarymanagementsystem.repositories.BookSort;
 import com.example.librarymanagementsystem.repositories.PatronRepository;
+import com.example.librarymanagementsystem.util.Isbn;
+import com.example.librarymanagementsystem.util.NdjsonWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class BookService {
 
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+    static final int ISBN13_BACKFILL_CHUNK = 500;
+
+    Logger logger = LoggerFactory.getLogger(BookService.class);
+
     @Autowired
     private BookRepository bookRepository;
 
     @Autowired
     private PatronRepository patronRepository;
 
-    public List<Book> findAll() {
-        return bookRepository.findAll();
+    @Autowired
+    private BookSearchIndex bookSearchIndex;
+
+    @Autowired
+    private BookInventoryService bookInventoryService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private OutboxPublisher outboxPublisher;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Transactional(readOnly = true)
+    public CursorPageDto<Book> findPage(Long after, int limit, BookSort sort) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+
+        Book cursor = null;
+        if (after != null) {
+            // Sorting by id only needs the id itself; other orders continue from the cursor's sort value.
+            cursor = sort == BookSort.ID
+                    ? Book.builder().id(after).build()
+                    : bookRepository.findById(after)
+                        .orElseThrow(() -> new IllegalArgumentException("Unknown cursor: " + after));
+        }
+
+        // Fetch one extra row to know whether there is a next page without a count query.
+        List<Book> books = bookRepository.findPageAfter(sort, cursor, pageSize + 1);
+        Long nextCursor = null;
+        if (books.size() > pageSize) {
+            books = new ArrayList<>(books.subList(0, pageSize));
+            nextCursor = books.get(pageSize - 1).getId();
+        }
+
+        return CursorPageDto.<Book>builder()
+                .items(books)
+                .nextCursor(nextCursor)
+                .build();
     }
 
+    // Visits every book without materializing the catalog: rows are streamed from the
+    // database cursor and detached as soon as they are processed, so heap use stays flat.
+    @Transactional(readOnly = true)
+    public void forEachBook(Consumer<Book> action) {
+        try (Stream<Book> books = bookRepository.streamAll()) {
+            books.forEach(book -> {
+                action.accept(book);
+                entityManager.detach(book);
+            });
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void exportBooks(OutputStream out) throws IOException {
+        try (NdjsonWriter writer = new NdjsonWriter(objectMapper, out)) {
+            forEachBook(writer::write);
+        }
+    }
+
+    // Books stored before ISBNs were normalized get their isbn13 once, so the unique index and
+    // findByIsbn13 cover them too. Of several such books sharing an ISBN, the one with the lowest id
+    // keeps it; the others are left without isbn13 and logged, to be merged by hand.
+    // Runs before buildSearchIndex, which maps ISBN-13s to books from the stored column.
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(4)
+    @Transactional
+    public void backfillIsbn13() {
+        int filled = 0;
+        Long after = 0L;
+        List<Book> books;
+        do {
+            books = bookRepository.findWithoutIsbn13After(after, Limit.of(ISBN13_BACKFILL_CHUNK));
+            for (Book book : books) {
+                String isbn13 = Isbn.tryToIsbn13(book.getIsbn());
+                if (isbn13 == null) {
+                    continue;
+                }
+                // The query flushes the books filled so far, so duplicates within the legacy rows are seen too.
+                if (bookRepository.existsByIsbn13(isbn13)) {
+                    logger.warn("Book {} has the same ISBN {} as another book; its isbn13 is left empty",
+                            book.getId(), isbn13);
+                    continue;
+                }
+                book.setIsbn13(isbn13);
+                filled++;
+            }
+            if (!books.isEmpty()) {
+                after = books.get(books.size() - 1).getId();
+            }
+            entityManager.flush();
+            entityManager.clear();
+        } while (books.size() == ISBN13_BACKFILL_CHUNK);
+        if (filled > 0) {
+            logger.info("Filled in isbn13 for {} books", filled);
+        }
+    }
+
+    // Builds the search index from the catalog once the application is up.
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void buildSearchIndex() {
+        long start = System.currentTimeMillis();
+        bookSearchIndex.startRebuild();
+        try {
+            forEachBook(bookSearchIndex::indexIfAbsent);
+        } finally {
+            bookSearchIndex.finishRebuild();
+        }
+        logger.info("Search index built with {} books in {} ms",
+                bookSearchIndex.size(), System.currentTimeMillis() - start);
+    }
+
+    public List<BookSearchHitDto> search(String query, String author, Integer year, int limit) {
+        return bookSearchIndex.search(query, author, year, Math.min(Math.max(limit, 1), MAX_PAGE_SIZE));
+    }
+
+    // Not sync: a synchronized load runs the query inside Caffeine's map lock, which pins the carrier
+    // thread when requests run on virtual threads. Concurrent misses for one id just load it twice.
+    @Cacheable(cacheNames = CacheConfig.BOOKS_CACHE, key = "#id")
     public Book findById(Long id) {
         return bookRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Book with ID " + id + " not found"));
     }
 
+    // Resolved through the in-memory ISBN map; the unique isbn13 index is only used on a miss.
+    // Callers load the book itself through findById so the lookup also benefits from the book cache.
+    public Long findIdByIsbn(String isbn) {
+        String isbn13 = Isbn.toIsbn13(isbn);
+        if (isbn13 == null) {
+            throw new IllegalArgumentException("ISBN must not be empty");
+        }
+        Long id = bookSearchIndex.findIdByIsbn13(isbn13);
+        if (id != null) {
+            return id;
+        }
+        return bookRepository.findByIsbn13(isbn13)
+                .map(Book::getId)
+                .orElseThrow(() -> new EntityNotFoundException("Book with ISBN " + isbn + " not found"));
+    }
+
+    // New books start with one copy; PATCH /api/books/{id}/copies changes how many the library owns.
+    @CachePut(cacheNames = CacheConfig.BOOKS_CACHE, key = "#result.id")
+    @Transactional
     public Book save(Book book) {
-        return bookRepository.save(book);
+        EventType eventType = book.getId() == null ? EventType.BOOK_CREATED : EventType.BOOK_UPDATED;
+        book.setIsbn13(Isbn.toIsbn13(book.getIsbn()));
+        Book savedBook = bookRepository.save(book);
+        bookInventoryService.createIfAbsent(savedBook.getId(), BookInventoryService.DEFAULT_COPIES);
+        outboxPublisher.publish(eventType, savedBook.getId(), BookPayload.of(savedBook));
+        afterCommit(() -> bookSearchIndex.index(savedBook));
+        return savedBook;
     }
 
+    @CacheEvict(cacheNames = CacheConfig.BOOKS_CACHE, key = "#id")
+    @Transactional
     public void deleteById(Long id) {
+        bookInventoryService.deleteByBookId(id);
         bookRepository.deleteById(id);
+        outboxPublisher.publish(EventType.BOOK_DELETED, id, new BookPayload(id, null, null, null));
+        afterCommit(() -> bookSearchIndex.remove(id));
     }
 
+    @CachePut(cacheNames = CacheConfig.BOOKS_CACHE, key = "#id")
+    @Transactional
     public Book updateBook(Long id, BookUpdateDto bookUpdateDto) {
         try {
             Book book = bookRepository.findById(id).orElseThrow();
@@ -52,10 +236,28 @@ public class BookService {
                 book.setAuthor(bookUpdateDto.getAuthor());
             }
 
-            return bookRepository.save(book);
+            Book updatedBook = bookRepository.save(book);
+            outboxPublisher.publish(EventType.BOOK_UPDATED, id, BookPayload.of(updatedBook));
+            afterCommit(() -> bookSearchIndex.index(updatedBook));
+            return updatedBook;
         } catch (NoSuchElementException e) {
             // Handle the case where the book with the given id is not found
             throw new NoSuchElementException("Book not found with id: " + id);
         }
     }
-}
\ No newline at end of file
+
+    // The search index and ISBN map only reflect committed books: a save, update or delete that rolls
+    // back (e.g. a delete refused by the borrowing history) must leave them unchanged.
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.librarymanagementsystem.services;
+
+import com.example.librarymanagementsystem.Dto.CacheStatsDto;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class CacheStatsService {
+
+    // Second-level cache regions are reported as "hibernate.<region>".
+    public static final String SECOND_LEVEL_CACHE_PREFIX = "hibernate.";
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private javax.cache.CacheManager secondLevelCacheManager;
+
+    public List<CacheStatsDto> getStats() {
+        List<CacheStatsDto> stats = new ArrayList<>();
+        for (String name : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache instanceof TransactionAwareCacheDecorator decorator) {
+                cache = decorator.getTargetCache();
+            }
+            if (cache instanceof CaffeineCache caffeineCache) {
+                stats.add(toDto(name, caffeineCache.getNativeCache()));
+            }
+        }
+        for (String region : secondLevelCacheManager.getCacheNames()) {
+            javax.cache.Cache<?, ?> cache = secondLevelCacheManager.getCache(region);
+            stats.add(toDto(SECOND_LEVEL_CACHE_PREFIX + region,
+                    cache.unwrap(com.github.benmanes.caffeine.cache.Cache.class)));
+        }
+        return stats;
+    }
+
+    private static CacheStatsDto toDto(String name, com.github.benmanes.caffeine.cache.Cache<?, ?> nativeCache) {
+        CacheStats cacheStats = nativeCache.stats();
+        return CacheStatsDto.builder()
+                .name(name)
+                .size(nativeCache.estimatedSize())
+                .hits(cacheStats.hitCount())
+                .misses(cacheStats.missCount())
+                .hitRate(cacheStats.hitRate())
+                .evictions(cacheStats.evictionCount())
+                .build();
+    }
+}
@@ -0,0 +1,316 @@
+package com.example.librarymanagementsystem.services;
+
+import com.example.librarymanagementsystem.Dto.DailyCirculationDto;
+import com.example.librarymanagementsystem.Dto.PatronLoanStatsDto;
+import com.example.librarymanagementsystem.Dto.PopularBookDto;
+import com.example.librarymanagementsystem.models.Book;
+import com.example.librarymanagementsystem.models.BookBorrowCount;
+import com.example.librarymanagementsystem.models.DailyCirculation;
+import com.example.librarymanagementsystem.models.PatronLoanCount;
+import com.example.librarymanagementsystem.repositories.BookBorrowCountRepository;
+import com.example.librarymanagementsystem.repositories.BookRepository;
+import com.example.librarymanagementsystem.repositories.DailyCirculationRepository;
+import com.example.librarymanagementsystem.repositories.PatronLoanCountRepository;
+import com.example.librarymanagementsystem.repositories.PatronRepository;
+import com.example.librarymanagementsystem.util.TopK;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Circulation statistics kept up to date by the borrowing service instead of computed with GROUP BY
+// over the borrowing history. Borrows and returns only bump in-memory counters (LongAdders, striped
+// across cells so concurrent loans do not contend), once their transaction has committed. A
+// scheduled flush adds the accumulated changes to the aggregate tables in one short transaction.
+//
+// Reads are O(1) or O(days): a patron's count and each day are a primary key lookup plus what is
+// still pending in memory, and the popular books are a list prepared by the last flush.
+@Service
+public class CirculationStatsService {
+
+    public static final int MAX_POPULAR_BOOKS = 100;
+    public static final int MAX_DAYS = 366;
+
+    Logger logger = LoggerFactory.getLogger(CirculationStatsService.class);
+
+    @Autowired
+    private BookBorrowCountRepository bookBorrowCountRepository;
+
+    @Autowired
+    private DailyCirculationRepository dailyCirculationRepository;
+
+    @Autowired
+    private PatronLoanCountRepository patronLoanCountRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private PatronRepository patronRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Changes not flushed yet. Entries are kept at zero rather than removed, so an increment never
+    // lands on a counter that has just been dropped; the maps are bounded by the books and patrons
+    // that circulate, and days older than yesterday are removed once flushed.
+    private final Map<Long, LongAdder> pendingBookBorrows = new ConcurrentHashMap<>();
+    private final Map<Long, LongAdder> pendingPatronLoans = new ConcurrentHashMap<>();
+    private final Map<LocalDate, LongAdder> pendingBorrows = new ConcurrentHashMap<>();
+    private final Map<LocalDate, LongAdder> pendingReturns = new ConcurrentHashMap<>();
+
+    // Written by the flush only, under flushLock.
+    private final TopK<Long> popularBooks = new TopK<>(MAX_POPULAR_BOOKS);
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private volatile List<PopularBookDto> popularBooksSnapshot = List.of();
+
+    public void recordBorrow(Long bookId, Long patronId, LocalDate day) {
+        afterCommit(() -> {
+            increment(pendingBookBorrows, bookId, 1);
+            increment(pendingPatronLoans, patronId, 1);
+            increment(pendingBorrows, day, 1);
+        });
+    }
+
+    public void recordReturn(Long patronId, LocalDate day) {
+        afterCommit(() -> {
+            increment(pendingPatronLoans, patronId, -1);
+            increment(pendingReturns, day, 1);
+        });
+    }
+
+    public List<PopularBookDto> getPopularBooks(int limit) {
+        List<PopularBookDto> books = popularBooksSnapshot;
+        return books.subList(0, Math.min(Math.max(limit, 0), books.size()));
+    }
+
+    public PatronLoanStatsDto getPatronStats(Long patronId) {
+        long activeLoans = patronLoanCountRepository.findById(patronId).map(PatronLoanCount::getActiveLoans).orElse(0L)
+                + pending(pendingPatronLoans, patronId);
+        if (activeLoans == 0 && !patronRepository.existsById(patronId)) {
+            throw new NoSuchElementException("Patron not found with id: " + patronId);
+        }
+        return PatronLoanStatsDto.builder().patronId(patronId).activeLoans(activeLoans).build();
+    }
+
+    // The last `days` days up to today, oldest first; days without loans are included as zeros.
+    public List<DailyCirculationDto> getDailyStats(int days) {
+        if (days < 1 || days > MAX_DAYS) {
+            throw new IllegalArgumentException("days must be between 1 and " + MAX_DAYS);
+        }
+        LocalDate to = LocalDate.now();
+        LocalDate from = to.minusDays(days - 1);
+        Map<LocalDate, DailyCirculation> stored = dailyCirculationRepository.findByDayBetweenOrderByDay(from, to).stream()
+                .collect(Collectors.toMap(DailyCirculation::getDay, Function.identity()));
+
+        List<DailyCirculationDto> result = new ArrayList<>(days);
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            DailyCirculation row = stored.get(day);
+            result.add(DailyCirculationDto.builder()
+                    .date(day)
+                    .borrows((row == null ? 0 : row.getBorrows()) + pending(pendingBorrows, day))
+                    .returns((row == null ? 0 : row.getReturns()) + pending(pendingReturns, day))
+                    .build());
+        }
+        return result;
+    }
+
+    @Scheduled(fixedDelayString = "${library.stats.flush-interval-ms:10000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            Map<Long, Long> bookBorrows = drain(pendingBookBorrows);
+            Map<Long, Long> patronLoans = drain(pendingPatronLoans);
+            Map<LocalDate, Long> borrows = drain(pendingBorrows);
+            Map<LocalDate, Long> returns = drain(pendingReturns);
+            if (bookBorrows.isEmpty() && patronLoans.isEmpty() && borrows.isEmpty() && returns.isEmpty()) {
+                return;
+            }
+
+            Map<Long, Long> bookTotals;
+            try {
+                bookTotals = new TransactionTemplate(transactionManager).execute(status -> {
+                    writePatronLoans(patronLoans);
+                    writeDays(borrows, returns);
+                    return writeBookBorrows(bookBorrows);
+                });
+            } catch (RuntimeException e) {
+                // E.g. another instance flushed the same rows first: keep the changes for the next flush.
+                bookBorrows.forEach((bookId, delta) -> increment(pendingBookBorrows, bookId, delta));
+                patronLoans.forEach((patronId, delta) -> increment(pendingPatronLoans, patronId, delta));
+                borrows.forEach((day, delta) -> increment(pendingBorrows, day, delta));
+                returns.forEach((day, delta) -> increment(pendingReturns, day, delta));
+                logger.warn("Could not flush circulation statistics, retrying on the next flush: {}", e.getMessage());
+                return;
+            }
+
+            LocalDate yesterday = LocalDate.now().minusDays(1);
+            pendingBorrows.keySet().removeIf(day -> day.isBefore(yesterday) && pendingBorrows.get(day).sum() == 0);
+            pendingReturns.keySet().removeIf(day -> day.isBefore(yesterday) && pendingReturns.get(day).sum() == 0);
+            updatePopularBooks(bookTotals);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    // Databases that predate the statistics get them computed from the history once, on the first
+    // start with empty aggregate tables. Then the popular books are loaded from the count index.
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(3)
+    @Transactional
+    public void initialize() {
+        if (bookBorrowCountRepository.count() == 0 && dailyCirculationRepository.count() == 0) {
+            int books = bookBorrowCountRepository.createFromHistory();
+            Map<LocalDate, Long> borrows = toDayCounts(dailyCirculationRepository.countBorrowsPerDay());
+            Map<LocalDate, Long> returns = toDayCounts(dailyCirculationRepository.countReturnsPerDay());
+            writeDays(borrows, returns);
+            if (books > 0) {
+                logger.info("Computed borrow counts of {} books from the borrowing history", books);
+            }
+        }
+        if (patronLoanCountRepository.count() == 0) {
+            patronLoanCountRepository.createFromActiveLoans();
+        }
+
+        Map<Long, Long> mostBorrowed = new HashMap<>();
+        for (BookBorrowCount count : bookBorrowCountRepository.findMostBorrowed(Limit.of(MAX_POPULAR_BOOKS))) {
+            mostBorrowed.put(count.getBookId(), count.getBorrowCount());
+        }
+        flushLock.lock();
+        try {
+            updatePopularBooks(mostBorrowed);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // Returns the new totals of the flushed books.
+    private Map<Long, Long> writeBookBorrows(Map<Long, Long> deltas) {
+        Map<Long, BookBorrowCount> rows = bookBorrowCountRepository.findAllById(deltas.keySet()).stream()
+                .collect(Collectors.toMap(BookBorrowCount::getBookId, Function.identity()));
+        Map<Long, Long> totals = new HashMap<>();
+        deltas.forEach((bookId, delta) -> {
+            BookBorrowCount row = rows.computeIfAbsent(bookId, id -> BookBorrowCount.builder().bookId(id).build());
+            row.setBorrowCount(row.getBorrowCount() + delta);
+            totals.put(bookId, row.getBorrowCount());
+        });
+        bookBorrowCountRepository.saveAll(rows.values());
+        return totals;
+    }
+
+    private void writePatronLoans(Map<Long, Long> deltas) {
+        Map<Long, PatronLoanCount> rows = patronLoanCountRepository.findAllById(deltas.keySet()).stream()
+                .collect(Collectors.toMap(PatronLoanCount::getPatronId, Function.identity()));
+        deltas.forEach((patronId, delta) -> {
+            PatronLoanCount row = rows.computeIfAbsent(patronId, id -> PatronLoanCount.builder().patronId(id).build());
+            row.setActiveLoans(row.getActiveLoans() + delta);
+        });
+        patronLoanCountRepository.saveAll(rows.values());
+    }
+
+    private void writeDays(Map<LocalDate, Long> borrows, Map<LocalDate, Long> returns) {
+        List<LocalDate> days = new ArrayList<>(borrows.keySet());
+        returns.keySet().stream().filter(day -> !borrows.containsKey(day)).forEach(days::add);
+        Map<LocalDate, DailyCirculation> rows = dailyCirculationRepository.findAllById(days).stream()
+                .collect(Collectors.toMap(DailyCirculation::getDay, Function.identity()));
+        for (LocalDate day : days) {
+            DailyCirculation row = rows.computeIfAbsent(day, d -> DailyCirculation.builder().day(d).build());
+            row.setBorrows(row.getBorrows() + borrows.getOrDefault(day, 0L));
+            row.setReturns(row.getReturns() + returns.getOrDefault(day, 0L));
+        }
+        dailyCirculationRepository.saveAll(rows.values());
+    }
+
+    // Titles are looked up only when the ranking changed, so reads never touch the database.
+    private void updatePopularBooks(Map<Long, Long> bookTotals) {
+        boolean changed = false;
+        for (Map.Entry<Long, Long> total : bookTotals.entrySet()) {
+            changed |= popularBooks.offer(total.getKey(), total.getValue());
+        }
+        if (!changed) {
+            return;
+        }
+        List<TopK.Entry<Long>> entries = popularBooks.entries();
+        Map<Long, String> titles = bookRepository.findAllById(entries.stream().map(TopK.Entry::key).toList()).stream()
+                .collect(Collectors.toMap(Book::getId, Book::getTitle));
+        popularBooksSnapshot = entries.stream()
+                .map(entry -> PopularBookDto.builder()
+                        .bookId(entry.key())
+                        .title(titles.get(entry.key()))
+                        .borrows(entry.count())
+                        .build())
+                .toList();
+    }
+
+    private static Map<LocalDate, Long> toDayCounts(List<Object[]> rows) {
+        Map<LocalDate, Long> counts = new HashMap<>();
+        for (Object[] row : rows) {
+            counts.put((LocalDate) row[0], (Long) row[1]);
+        }
+        return counts;
+    }
+
+    private static <K> void increment(Map<K, LongAdder> counters, K key, long delta) {
+        counters.computeIfAbsent(key, k -> new LongAdder()).add(delta);
+    }
+
+    private static <K> long pending(Map<K, LongAdder> counters, K key) {
+        LongAdder counter = counters.get(key);
+        return counter == null ? 0 : counter.sum();
+    }
+
+    // sumThenReset() takes each cell with getAndSet, so an increment racing with the drain is
+    // either in the returned sum or left for the next flush, never lost.
+    private static <K> Map<K, Long> drain(Map<K, LongAdder> counters) {
+        Map<K, Long> deltas = new HashMap<>();
+        counters.forEach((key, counter) -> {
+            long delta = counter.sumThenReset();
+            if (delta != 0) {
+                deltas.put(key, delta);
+            }
+        });
+        return deltas;
+    }
+
+    // A rolled back loan must not be counted.
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.librarymanagementsystem.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Lending terms, set in application.properties (library.loans.*).
+@Component
+public class LoanPolicy {
+
+    @Value("${library.loans.period-days:14}")
+    private int periodDays;
+
+    @Value("${library.loans.fine-per-day:0.50}")
+    private BigDecimal finePerDay;
+
+    public LocalDateTime dueDate(LocalDateTime borrowingDate) {
+        return borrowingDate.plusDays(periodDays);
+    }
+
+    public BigDecimal getFinePerDay() {
+        return finePerDay;
+    }
+}
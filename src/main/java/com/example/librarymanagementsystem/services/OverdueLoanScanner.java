@@ -0,0 +1,110 @@
+package com.example.librarymanagementsystem.services;
+
+import com.example.librarymanagementsystem.events.EventType;
+import com.example.librarymanagementsystem.events.OutboxPublisher;
+import com.example.librarymanagementsystem.events.OverduePayload;
+import com.example.librarymanagementsystem.models.ActiveLoan;
+import com.example.librarymanagementsystem.models.JobWatermark;
+import com.example.librarymanagementsystem.repositories.ActiveLoanRepository;
+import com.example.librarymanagementsystem.repositories.JobWatermarkRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Writes an overdue notice to the outbox for every open loan whose due date passed since the
+// previous run. Only loans between the watermark and now are read, from the due date index of
+// active_loan, so a run costs what became overdue rather than the size of the history. Each
+// batch is one short transaction: read the next loans, insert their notices, mark the loans as
+// notified and advance the watermark.
+//
+// A loan can fall due behind the watermark: a shorter library.loans.period-days, or a due date
+// edited in the database. The scan therefore starts library.loans.overdue-scan.lookback-days before
+// the watermark, and the notified mark keeps loans in that window from being reported twice. A loan
+// moved further back than that is assumed not to happen and is not reported.
+@Service
+public class OverdueLoanScanner {
+
+    public static final String JOB_NAME = "overdue-loans";
+
+    // Watermark of the first run: every loan already overdue is reported once.
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    Logger logger = LoggerFactory.getLogger(OverdueLoanScanner.class);
+
+    @Autowired
+    private ActiveLoanRepository activeLoanRepository;
+
+    @Autowired
+    private OutboxPublisher outboxPublisher;
+
+    @Autowired
+    private JobWatermarkRepository jobWatermarkRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private LoanPolicy loanPolicy;
+
+    @Value("${library.loans.overdue-scan.batch-size:500}")
+    private int batchSize;
+
+    @Value("${library.loans.overdue-scan.lookback-days:30}")
+    private int lookbackDays;
+
+    @Scheduled(cron = "${library.loans.overdue-scan.cron:0 0 2 * * *}")
+    public void scheduledScan() {
+        scan(LocalDateTime.now());
+    }
+
+    // Returns the number of notices written.
+    public int scan(LocalDateTime until) {
+        long start = System.currentTimeMillis();
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        int total = 0;
+        int written;
+        do {
+            written = transactionTemplate.execute(status -> scanBatch(until));
+            total += written;
+        } while (written == batchSize);
+
+        logger.info("Overdue scan up to {} wrote {} notices in {} ms", until, total, System.currentTimeMillis() - start);
+        return total;
+    }
+
+    private int scanBatch(LocalDateTime until) {
+        JobWatermark watermark = jobWatermarkRepository.findById(JOB_NAME)
+                .orElseGet(() -> JobWatermark.builder().name(JOB_NAME).lastDueDate(BEGINNING).lastRecordId(0L).build());
+        // Loans already notified are skipped by the query, so every batch starts at the same point.
+        List<ActiveLoan> loans = activeLoanRepository.findUnreportedDueBetween(
+                watermark.getLastDueDate().minusDays(lookbackDays), until, Limit.of(batchSize));
+        if (loans.isEmpty()) {
+            return 0;
+        }
+
+        for (ActiveLoan loan : loans) {
+            outboxPublisher.publish(EventType.LOAN_OVERDUE, loan.getRecordId(), new OverduePayload(loan.getRecordId(),
+                    loan.getBookId(), loan.getPatronId(), loan.getDueDate(), loanPolicy.getFinePerDay()));
+        }
+        LocalDateTime now = LocalDateTime.now();
+        activeLoanRepository.markOverdueNotified(loans.stream().map(ActiveLoan::getRecordId).toList(), now);
+        // Loans found behind the watermark do not move it back.
+        ActiveLoan last = loans.get(loans.size() - 1);
+        if (last.getDueDate().isAfter(watermark.getLastDueDate())) {
+            watermark.setLastDueDate(last.getDueDate());
+            watermark.setLastRecordId(last.getRecordId());
+        }
+        watermark.setUpdatedAt(now);
+        jobWatermarkRepository.save(watermark);
+        return loans.size();
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.librarymanagementsystem.services;
+
+import com.example.librarymanagementsystem.events.DomainEvent;
+import com.example.librarymanagementsystem.events.EventSubscriber;
+import com.example.librarymanagementsystem.events.EventType;
+import com.example.librarymanagementsystem.events.OverduePayload;
+import com.example.librarymanagementsystem.models.Patron;
+import com.example.librarymanagementsystem.repositories.PatronRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+// Notifies patrons of overdue loans as LOAN_OVERDUE events arrive. There is no mail gateway yet,
+// so the notice is written to the log.
+@Component
+public class OverdueNoticeSubscriber implements EventSubscriber {
+
+    Logger logger = LoggerFactory.getLogger(OverdueNoticeSubscriber.class);
+
+    @Autowired
+    private PatronRepository patronRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Override
+    public String getName() {
+        return "overdue-notices";
+    }
+
+    @Override
+    public boolean accepts(EventType type) {
+        return type == EventType.LOAN_OVERDUE;
+    }
+
+    @Override
+    public void onEvent(DomainEvent event) throws Exception {
+        OverduePayload overdue = objectMapper.readValue(event.payload(), OverduePayload.class);
+        String email = patronRepository.findById(overdue.patronId()).map(Patron::getEmail).orElse(null);
+        if (email == null) {
+            return;
+        }
+        logger.info("Overdue notice to {}: book {} was due on {}; the fine is {} per day",
+                email, overdue.bookId(), overdue.dueDate(), overdue.finePerDay());
+    }
+}
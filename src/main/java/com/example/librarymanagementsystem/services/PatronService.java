@@ -1,21 +1,33 @@
 package com.example.librarymanagementsystem.services;
 
+import com.example.librarymanagementsystem.Dto.CursorPageDto;
+import com.example.librarymanagementsystem.Dto.PatronSummaryDto;
 import com.example.librarymanagementsystem.Dto.UserProfileUpdateDto;
 import com.example.librarymanagementsystem.config.JwtService;
+import com.example.librarymanagementsystem.config.ReadYourWritesGuard;
 import com.example.librarymanagementsystem.Dto.AuthenticationRequest;
 import com.example.librarymanagementsystem.Dto.AuthenticationResponse;
 import com.example.librarymanagementsystem.Dto.RegisterRequest;
+import com.example.librarymanagementsystem.events.EventType;
+import com.example.librarymanagementsystem.events.OutboxPublisher;
+import com.example.librarymanagementsystem.events.PatronPayload;
 import com.example.librarymanagementsystem.models.Patron;
 import com.example.librarymanagementsystem.models.Role;
 import com.example.librarymanagementsystem.repositories.PatronRepository;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.NoSuchElementException;
 
@@ -28,9 +40,38 @@ public class PatronService {
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
+    private final OutboxPublisher outboxPublisher;
+    private final PlatformTransactionManager transactionManager;
+    private final ReadYourWritesGuard readYourWritesGuard;
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    // Keyset page of the directory in id order, optionally limited to emails starting with emailPrefix.
+    @Transactional(readOnly = true)
+    public CursorPageDto<PatronSummaryDto> findPage(Long after, int limit, String emailPrefix) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        String emailPattern = emailPrefix == null || emailPrefix.isBlank()
+                ? null
+                : escapeLike(emailPrefix.trim()) + "%";
+
+        // Fetch one extra row to know whether there is a next page without a count query.
+        List<PatronSummaryDto> patrons = patronRepository.findSummariesAfter(
+                after == null ? 0 : after, emailPattern, Limit.of(pageSize + 1));
+        Long nextCursor = null;
+        if (patrons.size() > pageSize) {
+            patrons = new ArrayList<>(patrons.subList(0, pageSize));
+            nextCursor = patrons.get(pageSize - 1).getId();
+        }
+
+        return CursorPageDto.<PatronSummaryDto>builder()
+                .items(patrons)
+                .nextCursor(nextCursor)
+                .build();
+    }
 
-    public List<Patron> findAll() {
-        return patronRepository.findAll();
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
     }
 
     public Patron findById(Long id) {
@@ -38,8 +79,11 @@ public class PatronService {
                 .orElseThrow(() -> new EntityNotFoundException("User with ID " + id + " not found"));
     }
 
+    @Transactional
     public void deleteById(Long id) {
         patronRepository.deleteById(id);
+        outboxPublisher.publish(EventType.PATRON_DELETED, id, new PatronPayload(id, null, null, null));
+        jwtService.revokeTokens(id);
     }
 
     public Patron save(Patron patron) {
@@ -54,21 +98,23 @@ public class PatronService {
                 .password(passwordEncoder.encode(request.getPassword()))
                 .role(Role.USER)
                 .build();
-        patronRepository.save(patron);
+        saveAndPublish(patron, EventType.PATRON_REGISTERED);
+        // Registration is anonymous, so the commit cannot be attributed to the new patron on its own.
+        readYourWritesGuard.recordWrite(patron.getEmail());
         String jwtToken = jwtService.generateToken(patron);
         return AuthenticationResponse.builder()
                 .token(jwtToken).build();
     }
 
+    // The authenticated principal is the patron loaded by the authentication provider.
     public AuthenticationResponse authenticate(AuthenticationRequest request) {
-        authenticationManager.authenticate(
+        Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
                     request.getEmail(),
                     request.getPassword()
                 )
         );
-        Patron patron = patronRepository.findByEmail(request.getEmail())
-                .orElseThrow();
+        Patron patron = (Patron) authentication.getPrincipal();
         String jwtToken = jwtService.generateToken(patron);
         return AuthenticationResponse.builder()
                 .token(jwtToken).build();
@@ -94,11 +140,26 @@ public class PatronService {
                 patron.setPassword(encodedPassword);
             }
 
-            return patronRepository.save(patron);
+            Patron updatedPatron = saveAndPublish(patron, EventType.PATRON_UPDATED);
+            if (userProfileUpdateDto.getPassword() != null) {
+                jwtService.revokeTokens(id);
+            }
+            return updatedPatron;
 
         } catch (NoSuchElementException e) {
             // Handle the case where the patron with the given id is not found
             throw new NoSuchElementException("Patron not found with id: " + id);
         }
     }
-}
\ No newline at end of file
+
+    // A transaction of its own around the write only, so that no connection is held while the
+    // password is hashed.
+    private Patron saveAndPublish(Patron patron, EventType eventType) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            Patron savedPatron = patronRepository.save(patron);
+            outboxPublisher.publish(eventType, savedPatron.getId(), new PatronPayload(savedPatron.getId(),
+                    savedPatron.getFirstname(), savedPatron.getLastname(), savedPatron.getEmail()));
+            return savedPatron;
+        });
+    }
+}
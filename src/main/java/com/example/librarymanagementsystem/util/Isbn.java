@@ -0,0 +1,58 @@
+package com.example.librarymanagementsystem.util;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+// ISBN normalization: every valid ISBN-10 or ISBN-13, with or without separators,
+// maps to the same 13-digit string, which is what is stored and looked up.
+public final class Isbn {
+
+    private static final Pattern SEPARATORS = Pattern.compile("[\\s-]");
+    private static final Pattern ISBN_10 = Pattern.compile("\\d{9}[\\dX]");
+    private static final Pattern ISBN_13 = Pattern.compile("\\d{13}");
+
+    private Isbn() {
+    }
+
+    public static String toIsbn13(String isbn) {
+        if (isbn == null || isbn.isBlank()) {
+            return null;
+        }
+        String compact = SEPARATORS.matcher(isbn).replaceAll("").toUpperCase(Locale.ROOT);
+
+        if (ISBN_10.matcher(compact).matches() && isbn10CheckDigit(compact) == compact.charAt(9)) {
+            String body = "978" + compact.substring(0, 9);
+            return body + isbn13CheckDigit(body);
+        }
+        if (ISBN_13.matcher(compact).matches() && isbn13CheckDigit(compact) == compact.charAt(12)) {
+            return compact;
+        }
+        throw new IllegalArgumentException("Invalid ISBN: " + isbn);
+    }
+
+    // Lenient variant for data that was stored before ISBNs were validated.
+    public static String tryToIsbn13(String isbn) {
+        try {
+            return toIsbn13(isbn);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static char isbn10CheckDigit(String isbn) {
+        int sum = 0;
+        for (int i = 0; i < 9; i++) {
+            sum += (10 - i) * (isbn.charAt(i) - '0');
+        }
+        int check = (11 - sum % 11) % 11;
+        return check == 10 ? 'X' : (char) ('0' + check);
+    }
+
+    private static char isbn13CheckDigit(String isbn) {
+        int sum = 0;
+        for (int i = 0; i < 12; i++) {
+            sum += (i % 2 == 0 ? 1 : 3) * (isbn.charAt(i) - '0');
+        }
+        return (char) ('0' + (10 - sum % 10) % 10);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.librarymanagementsystem.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Bounded, lock-free queue for many producers and a single consumer (D. Vyukov's bounded queue).
+// Each slot carries a sequence number telling whether it is free for the producer claiming position
+// `pos` (sequence == pos) or holds the element for the consumer (sequence == pos + 1). offer() never
+// blocks: when the buffer is full it returns false and the caller decides what to do with the element.
+public final class MpscRingBuffer<E> {
+
+    private final Object[] elements;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    // Written by the consumer only; volatile so that size() can be read from other threads.
+    private volatile long head;
+
+    public MpscRingBuffer(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        elements = new Object[capacity];
+        sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+        mask = capacity - 1;
+    }
+
+    public boolean offer(E element) {
+        long pos = tail.get();
+        while (true) {
+            int index = (int) (pos & mask);
+            long available = sequences.get(index) - pos;
+            if (available == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    elements[index] = element;
+                    sequences.set(index, pos + 1);
+                    return true;
+                }
+                pos = tail.get();
+            } else if (available < 0) {
+                // The slot still holds the element from one lap ago: full.
+                return false;
+            } else {
+                pos = tail.get();
+            }
+        }
+    }
+
+    // Consumer thread only. Returns null when empty, or when the next producer has claimed
+    // its slot but not yet written it.
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        long pos = head;
+        int index = (int) (pos & mask);
+        if (sequences.get(index) != pos + 1) {
+            return null;
+        }
+        E element = (E) elements[index];
+        elements[index] = null;
+        sequences.set(index, pos + mask + 1);
+        head = pos + 1;
+        return element;
+    }
+
+    public int size() {
+        return (int) Math.max(0, Math.min(tail.get() - head, capacity()));
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.librarymanagementsystem.util;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+// Writes one JSON document per line (application/x-ndjson) to a stream.
+// Output is buffered by the generator and only flushed on close, not after every row.
+public class NdjsonWriter implements AutoCloseable {
+
+    private final JsonGenerator generator;
+    private final ObjectWriter writer;
+
+    public NdjsonWriter(ObjectMapper objectMapper, OutputStream out) throws IOException {
+        this.generator = objectMapper.getFactory().createGenerator(out);
+        // Rows are terminated by newlines instead of the default space between root values.
+        this.generator.setRootValueSeparator(null);
+        this.writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    public void write(Object row) {
+        try {
+            writer.writeValue(generator, row);
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.librarymanagementsystem.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+// The k keys with the highest counts, for counts that only ever grow. Fed with the new total of a
+// key whenever it changes, it stays exact: a key outside the top k can only enter by overtaking
+// the smallest member, and it is offered its full total when it does. Ties go to the lower key.
+// Not thread-safe.
+public final class TopK<K extends Comparable<K>> {
+
+    public record Entry<K>(K key, long count) {
+    }
+
+    private final int capacity;
+    private final Map<K, Long> counts = new HashMap<>();
+    // Lowest count first, and on equal counts the higher key first, so first() is the one to evict.
+    private final TreeSet<Entry<K>> ranking;
+
+    public TopK(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1: " + capacity);
+        }
+        this.capacity = capacity;
+        this.ranking = new TreeSet<>(Comparator.<Entry<K>>comparingLong(Entry::count)
+                .thenComparing(Entry::key, Comparator.reverseOrder()));
+    }
+
+    // Records the current total of a key; returns whether the top k changed.
+    public boolean offer(K key, long count) {
+        Long current = counts.get(key);
+        if (current != null) {
+            if (current == count) {
+                return false;
+            }
+            ranking.remove(new Entry<>(key, current));
+        } else if (counts.size() >= capacity) {
+            Entry<K> smallest = ranking.first();
+            if (ranking.comparator().compare(new Entry<>(key, count), smallest) <= 0) {
+                return false;
+            }
+            ranking.pollFirst();
+            counts.remove(smallest.key());
+        }
+        counts.put(key, count);
+        ranking.add(new Entry<>(key, count));
+        return true;
+    }
+
+    // Highest count first.
+    public List<Entry<K>> entries() {
+        return new ArrayList<>(ranking.descendingSet());
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+}
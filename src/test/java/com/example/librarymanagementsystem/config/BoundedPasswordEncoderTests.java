@@ -0,0 +1,74 @@
+package com.example.librarymanagementsystem.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+public class BoundedPasswordEncoderTests {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch started = new CountDownLatch(1);
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        encoder.close();
+    }
+
+    @Test
+    public void boundedPasswordEncoder_Matches_DelegatesAndDetectsWeakerHashes() {
+        encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(5), 1, 1);
+        String hash = encoder.encode("secret");
+
+        Assertions.assertThat(encoder.matches("secret", hash)).isTrue();
+        Assertions.assertThat(encoder.matches("other", hash)).isFalse();
+        Assertions.assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("secret"))).isTrue();
+        Assertions.assertThat(encoder.upgradeEncoding(hash)).isFalse();
+    }
+
+    @Test
+    public void boundedPasswordEncoder_Encode_RejectsWhenThreadsAndQueueAreBusy() throws Exception {
+        encoder = new BoundedPasswordEncoder(new BlockingEncoder(), 1, 1);
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+        Assertions.assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("b"));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        encoder.bindTo(registry);
+        while (registry.get("library.security.password.hashing.queue.size").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        Assertions.assertThatThrownBy(() -> encoder.encode("c")).isInstanceOf(RejectedExecutionException.class);
+
+        release.countDown();
+        Assertions.assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("encoded:a");
+        Assertions.assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("encoded:b");
+    }
+
+    private class BlockingEncoder implements PasswordEncoder {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "encoded:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encodedPassword.equals(encode(rawPassword));
+        }
+    }
+}
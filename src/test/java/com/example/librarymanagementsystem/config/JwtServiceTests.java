@@ -0,0 +1,33 @@
+package com.example.librarymanagementsystem.config;
+
+import com.example.librarymanagementsystem.models.Patron;
+import com.example.librarymanagementsystem.models.Role;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class JwtServiceTests {
+
+    private final JwtService jwtService = new JwtService(100);
+    private final Patron patron = Patron.builder().id(7L).email("reader@example.com").role(Role.USER).build();
+
+    @Test
+    public void jwtService_RevokeTokens_RejectsTokenIssuedInTheSameSecond() {
+        String token = jwtService.generateToken(patron);
+        Assertions.assertThat(jwtService.isTokenValid(token, patron)).isTrue();
+
+        jwtService.revokeTokens(patron.getId());
+
+        Assertions.assertThat(jwtService.isTokenValid(token, patron)).isFalse();
+    }
+
+    @Test
+    public void jwtService_GenerateTokenAfterRevocation_NewTokenAccepted() {
+        jwtService.revokeTokens(patron.getId());
+
+        String token = jwtService.generateToken(patron);
+
+        Assertions.assertThat(jwtService.isTokenValid(token, patron)).isTrue();
+        Assertions.assertThat(jwtService.extractPrincipal(jwtService.extractAllClaims(token)).getRole())
+                .isEqualTo(Role.USER);
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.librarymanagementsystem.config;
+
+import com.example.librarymanagementsystem.models.Book;
+import com.example.librarymanagementsystem.repositories.BookRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.util.List;
+
+// Two in-memory H2 databases stand in for the primary and the replica. The replica is a snapshot of
+// the primary taken before the book is renamed on the primary, so a read returns the old title
+// from the replica and the new one from the primary.
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(locations = "../../../../test.properties",
+        properties = {"spring.datasource.url=jdbc:h2:mem:routing_primary;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                "library.datasource.replica.url=jdbc:h2:mem:routing_replica;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                "library.datasource.replica.read-your-writes-ms=60000"})
+@ContextConfiguration()
+@Import({DataSourceRoutingConfig.class, ReadYourWritesGuard.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ReadWriteRoutingDataSourceTests {
+    private final BookRepository bookRepository;
+    private final ReadYourWritesGuard guard;
+    private final PlatformTransactionManager transactionManager;
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+
+    @TempDir
+    Path snapshotDir;
+
+    private Long bookId;
+
+    @Autowired
+    public ReadWriteRoutingDataSourceTests(BookRepository bookRepository, ReadYourWritesGuard guard,
+                                           PlatformTransactionManager transactionManager,
+                                           @Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                           @Qualifier("replicaDataSource") DataSource replicaDataSource) {
+        this.bookRepository = bookRepository;
+        this.guard = guard;
+        this.transactionManager = transactionManager;
+        this.primary = new JdbcTemplate(primaryDataSource);
+        this.replica = new JdbcTemplate(replicaDataSource);
+    }
+
+    @BeforeEach
+    public void setUp() {
+        bookId = bookRepository.save(Book.builder().title("Original").author("author").build()).getId();
+        String snapshot = snapshotDir.resolve("snapshot.sql").toString().replace('\\', '/');
+        primary.execute("SCRIPT TO '" + snapshot + "'");
+        replica.execute("DROP ALL OBJECTS");
+        replica.execute("RUNSCRIPT FROM '" + snapshot + "'");
+        primary.update("UPDATE book SET title = 'Updated' WHERE id = ?", bookId);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+        bookRepository.deleteAll();
+    }
+
+    @Test
+    public void readOnlyTransaction_NoRecentWrite_ReadsFromReplica() {
+        signIn("reader@example.com");
+
+        Assertions.assertThat(readTitle()).isEqualTo("Original");
+        // Spring Data's own read methods are read-only transactions as well.
+        Assertions.assertThat(bookRepository.findById(bookId).orElseThrow().getTitle()).isEqualTo("Original");
+    }
+
+    @Test
+    public void writeTransaction_Read_ReadsFromPrimary() {
+        String title = new TransactionTemplate(transactionManager)
+                .execute(status -> bookRepository.findById(bookId).orElseThrow().getTitle());
+
+        Assertions.assertThat(title).isEqualTo("Updated");
+    }
+
+    @Test
+    public void readOnlyTransaction_AfterOwnWrite_ReadsFromPrimary() {
+        signIn("writer@example.com");
+        new TransactionTemplate(transactionManager).executeWithoutResult(
+                status -> bookRepository.save(Book.builder().title("Another").author("author").build()));
+
+        Assertions.assertThat(readTitle()).isEqualTo("Updated");
+
+        signIn("reader@example.com");
+        Assertions.assertThat(readTitle()).isEqualTo("Original");
+    }
+
+    @Test
+    public void readOnlyTransaction_AfterRolledBackWrite_ReadsFromReplica() {
+        signIn("writer@example.com");
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            bookRepository.save(Book.builder().title("Another").author("author").build());
+            status.setRollbackOnly();
+        });
+
+        Assertions.assertThat(readTitle()).isEqualTo("Original");
+    }
+
+    @Test
+    public void readOnlyTransaction_OnPrimary_ReadsFromPrimary() {
+        Assertions.assertThat(guard.onPrimary(this::readTitle)).isEqualTo("Updated");
+        Assertions.assertThat(readTitle()).isEqualTo("Original");
+    }
+
+    private String readTitle() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        return readOnly.execute(status -> bookRepository.findById(bookId).orElseThrow().getTitle());
+    }
+
+    private static void signIn(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, List.of()));
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.librarymanagementsystem.config;
+
+import com.example.librarymanagementsystem.Dto.CacheStatsDto;
+import com.example.librarymanagementsystem.models.Book;
+import com.example.librarymanagementsystem.models.Patron;
+import com.example.librarymanagementsystem.models.Role;
+import com.example.librarymanagementsystem.repositories.BookRepository;
+import com.example.librarymanagementsystem.repositories.PatronRepository;
+import com.example.librarymanagementsystem.services.CacheStatsService;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+// Every repository call runs in a transaction of its own, as it does in the services, so entities
+// only come back from the second-level cache, never from a shared persistence context. A change
+// made with plain JDBC bypasses Hibernate: seeing the old value afterwards shows the cache answered.
+@DataJpaTest
+@TestPropertySource(locations = "../../../../test.properties",
+        properties = {"spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+                "spring.jpa.properties.hibernate.cache.use_query_cache=true"})
+@ContextConfiguration()
+@Import({CacheConfig.class, CacheStatsService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class SecondLevelCacheTests {
+    private final BookRepository bookRepository;
+    private final PatronRepository patronRepository;
+    private final CacheStatsService cacheStatsService;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public SecondLevelCacheTests(BookRepository bookRepository, PatronRepository patronRepository,
+                                 CacheStatsService cacheStatsService, JdbcTemplate jdbcTemplate) {
+        this.bookRepository = bookRepository;
+        this.patronRepository = patronRepository;
+        this.cacheStatsService = cacheStatsService;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @AfterEach
+    public void tearDown() {
+        bookRepository.deleteAll();
+        patronRepository.deleteAll();
+    }
+
+    @Test
+    public void bookFindById_Cached_AnsweredFromMemory() {
+        Long id = bookRepository.save(Book.builder().title("Original").author("author").build()).getId();
+        long hits = stats("book").getHits();
+
+        jdbcTemplate.update("UPDATE book SET title = 'Changed behind Hibernate' WHERE id = ?", id);
+
+        Assertions.assertThat(bookRepository.findById(id).orElseThrow().getTitle()).isEqualTo("Original");
+        Assertions.assertThat(stats("book").getHits()).isGreaterThan(hits);
+    }
+
+    @Test
+    public void bookSave_Update_CachedEntryReplaced() {
+        Book book = bookRepository.save(Book.builder().title("Original").author("author").build());
+        bookRepository.findById(book.getId());
+
+        book.setTitle("Updated");
+        bookRepository.save(book);
+
+        Assertions.assertThat(bookRepository.findById(book.getId()).orElseThrow().getTitle()).isEqualTo("Updated");
+    }
+
+    @Test
+    public void bookDeleteById_Cached_Evicted() {
+        Long id = bookRepository.save(Book.builder().title("title").author("author").build()).getId();
+        bookRepository.findById(id);
+
+        bookRepository.deleteById(id);
+
+        Assertions.assertThat(bookRepository.findById(id)).isEmpty();
+    }
+
+    @Test
+    public void patronFindByEmail_Repeated_AnsweredFromQueryCache() {
+        Patron patron = patronRepository.save(patron("reader@example.com", "Ann"));
+        patronRepository.findByEmail("reader@example.com");
+        long hits = stats("patron-by-email").getHits();
+
+        jdbcTemplate.update("UPDATE patron SET firstname = 'Changed behind Hibernate' WHERE id = ?", patron.getId());
+
+        Assertions.assertThat(patronRepository.findByEmail("reader@example.com").orElseThrow().getFirstname())
+                .isEqualTo("Ann");
+        Assertions.assertThat(stats("patron-by-email").getHits()).isGreaterThan(hits);
+    }
+
+    @Test
+    public void patronFindByEmail_AfterUpdateAndDelete_ReturnsCurrentState() {
+        Patron patron = patronRepository.save(patron("reader@example.com", "Ann"));
+        patronRepository.findByEmail("reader@example.com");
+
+        patron.setFirstname("Anna");
+        patronRepository.save(patron);
+        Assertions.assertThat(patronRepository.findByEmail("reader@example.com").orElseThrow().getFirstname())
+                .isEqualTo("Anna");
+
+        patronRepository.deleteById(patron.getId());
+        Assertions.assertThat(patronRepository.findByEmail("reader@example.com")).isEmpty();
+        Assertions.assertThat(patronRepository.findById(patron.getId())).isEmpty();
+    }
+
+    private CacheStatsDto stats(String region) {
+        return cacheStatsService.getStats().stream()
+                .filter(stats -> stats.getName().equals(CacheStatsService.SECOND_LEVEL_CACHE_PREFIX + region))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static Patron patron(String email, String firstname) {
+        return Patron.builder().firstname(firstname).lastname("Reader").email(email).password("secret")
+                .role(Role.USER).build();
+    }
+}
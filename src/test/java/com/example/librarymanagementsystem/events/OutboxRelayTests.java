@@ -0,0 +1,161 @@
+package com.example.librarymanagementsystem.events;
+
+import com.example.librarymanagementsystem.config.ReadYourWritesGuard;
+import com.example.librarymanagementsystem.models.OutboxEvent;
+import com.example.librarymanagementsystem.repositories.OutboxEventRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+@DataJpaTest
+@TestPropertySource(locations = "../../../../test.properties",
+        properties = {"library.events.relay.batch-size=2", "library.events.subscriber.buffer-size=2"})
+@ContextConfiguration()
+@Import({OutboxPublisher.class, OutboxRelay.class, ReadYourWritesGuard.class, JacksonAutoConfiguration.class,
+        OutboxRelayTests.Subscribers.class})
+public class OutboxRelayTests {
+    private final OutboxPublisher outboxPublisher;
+    private final OutboxEventRepository outboxEventRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+    private final Subscribers subscribers;
+
+    @Autowired
+    public OutboxRelayTests(OutboxPublisher outboxPublisher, OutboxEventRepository outboxEventRepository,
+                            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                            Subscribers subscribers) {
+        this.outboxPublisher = outboxPublisher;
+        this.outboxEventRepository = outboxEventRepository;
+        this.transactionManager = transactionManager;
+        this.meterRegistry = meterRegistry;
+        this.subscribers = subscribers;
+    }
+
+    @BeforeEach
+    public void setUp() {
+        subscribers.all.clear();
+        subscribers.books.clear();
+    }
+
+    // The relay reads committed rows on its own thread, so the test must not run in a transaction.
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void outboxRelay_Publish_DeliversToEverySubscriberAndEmptiesOutbox() throws InterruptedException {
+        double delivered = deliveredToAll();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (long bookId = 1; bookId <= 5; bookId++) {
+                outboxPublisher.publish(EventType.BOOK_CREATED, bookId, new BookPayload(bookId, "title", "author", null));
+            }
+            outboxPublisher.publish(EventType.LOAN_OVERDUE, 7L, new OverduePayload(7L, 1L, 1L, null, null));
+        });
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while ((subscribers.all.size() < 6 || subscribers.books.size() < 5 || outboxEventRepository.count() > 0)
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        Assertions.assertThat(subscribers.all).extracting(DomainEvent::aggregateId).containsExactly(1L, 2L, 3L, 4L, 5L, 7L);
+        Assertions.assertThat(subscribers.books).containsExactlyInAnyOrder(1L, 2L, 3L, 4L, 5L);
+        Assertions.assertThat(outboxEventRepository.count()).isZero();
+        Assertions.assertThat(meterRegistry.get("library.events.subscriber.lag").tag("subscriber", "books").gauge().value())
+                .isZero();
+        Assertions.assertThat(deliveredToAll() - delivered).isEqualTo(6);
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void outboxRelay_UnknownEventType_DiscardedWithoutBlockingOthers() throws InterruptedException {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            outboxEventRepository.save(OutboxEvent.builder().type("NO_SUCH_EVENT").aggregateId(1L)
+                    .payload("{}").createdAt(LocalDateTime.now()).build());
+            outboxPublisher.publish(EventType.BOOK_CREATED, 2L, new BookPayload(2L, "title", "author", null));
+        });
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while ((subscribers.books.size() < 1 || outboxEventRepository.count() > 0)
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        Assertions.assertThat(subscribers.books).containsExactly(2L);
+        Assertions.assertThat(outboxEventRepository.count()).isZero();
+        Assertions.assertThat(meterRegistry.get("library.events.discarded").counter().count()).isEqualTo(1);
+    }
+
+    private double deliveredToAll() {
+        return meterRegistry.get("library.events.delivered")
+                .tags("subscriber", "all", "outcome", "SUCCESS").counter().count();
+    }
+
+    @TestConfiguration
+    static class Subscribers {
+        final List<DomainEvent> all = new CopyOnWriteArrayList<>();
+        final Set<Long> books = ConcurrentHashMap.newKeySet();
+        private final Set<Long> failedOnce = ConcurrentHashMap.newKeySet();
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        EventSubscriber allEvents() {
+            return new EventSubscriber() {
+                @Override
+                public String getName() {
+                    return "all";
+                }
+
+                @Override
+                public void onEvent(DomainEvent event) {
+                    all.add(event);
+                }
+            };
+        }
+
+        // Fails the first attempt at every event, which the relay retries.
+        @Bean
+        EventSubscriber bookEvents() {
+            return new EventSubscriber() {
+                @Override
+                public String getName() {
+                    return "books";
+                }
+
+                @Override
+                public boolean accepts(EventType type) {
+                    return type == EventType.BOOK_CREATED;
+                }
+
+                @Override
+                public void onEvent(DomainEvent event) {
+                    if (failedOnce.add(event.id())) {
+                        throw new IllegalStateException("Not yet");
+                    }
+                    books.add(event.aggregateId());
+                }
+            };
+        }
+    }
+}
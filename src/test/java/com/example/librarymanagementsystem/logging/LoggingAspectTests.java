@@ -0,0 +1,61 @@
+package com.example.librarymanagementsystem.logging;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+public class LoggingAspectTests {
+
+    private SimpleMeterRegistry meterRegistry;
+    private Target target;
+
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        AspectJProxyFactory factory = new AspectJProxyFactory(new Target());
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new LoggingAspect(meterRegistry, new StandardEnvironment()));
+        target = factory.getProxy();
+    }
+
+    @Test
+    public void loggingAspect_LogExecution_RecordsLatencyPerOutcome() {
+        target.handle(HttpStatus.OK);
+        target.handle(HttpStatus.OK);
+        target.handle(HttpStatus.NOT_FOUND);
+
+        Assertions.assertThat(meterRegistry.get("library.endpoint.requests")
+                .tags("class", "Target", "method", "handle", "outcome", "SUCCESS").timer().count()).isEqualTo(2);
+        Assertions.assertThat(meterRegistry.get("library.endpoint.errors")
+                .tags("method", "handle", "outcome", "CLIENT_ERROR").counter().count()).isEqualTo(1);
+        Assertions.assertThat(meterRegistry.get("library.endpoint.in.flight")
+                .tags("method", "handle").gauge().value()).isZero();
+    }
+
+    @Test
+    public void loggingAspect_LogExecution_CountsThrownExceptions() {
+        Assertions.assertThatThrownBy(() -> target.fail()).isInstanceOf(IllegalStateException.class);
+        Assertions.assertThatThrownBy(() -> target.fail()).isInstanceOf(IllegalStateException.class);
+
+        Assertions.assertThat(meterRegistry.get("library.endpoint.errors")
+                .tags("method", "fail", "outcome", "EXCEPTION", "exception", "IllegalStateException")
+                .counter().count()).isEqualTo(2);
+    }
+
+    public static class Target {
+        @LogExecution
+        public ResponseEntity<Object> handle(HttpStatus status) {
+            return ResponseEntity.status(status).build();
+        }
+
+        @LogExecution
+        public void fail() {
+            throw new IllegalStateException("failed");
+        }
+    }
+}
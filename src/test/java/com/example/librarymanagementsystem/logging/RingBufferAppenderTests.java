@@ -0,0 +1,106 @@
+package com.example.librarymanagementsystem.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.AppenderBase;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+// The attached appender holds the background thread on the first event until the test releases it,
+// which keeps the buffer full for as long as the test needs.
+public class RingBufferAppenderTests {
+
+    private LoggerContext loggerContext;
+    private RingBufferAppender appender;
+    private GatedAppender written;
+
+    @BeforeEach
+    public void setUp() throws InterruptedException {
+        loggerContext = new LoggerContext();
+        loggerContext.setMDCAdapter(new LogbackMDCAdapter());
+        written = new GatedAppender();
+        written.setContext(loggerContext);
+        written.start();
+        appender = new RingBufferAppender();
+        appender.setContext(loggerContext);
+        appender.setCapacity(2);
+        appender.setMaxBlockTime(10_000);
+        appender.addAppender(written);
+        appender.start();
+
+        appender.doAppend(event(Level.INFO, "first"));
+        Assertions.assertThat(written.entered.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        written.gate.countDown();
+        appender.stop();
+    }
+
+    @Test
+    public void ringBufferAppender_Full_DropsInfoButWaitsForWarn() throws InterruptedException {
+        appender.doAppend(event(Level.INFO, "second"));
+        appender.doAppend(event(Level.INFO, "third"));
+        appender.doAppend(event(Level.INFO, "dropped"));
+        Assertions.assertThat(appender.getDroppedCount()).isEqualTo(1);
+
+        Thread warning = new Thread(() -> appender.doAppend(event(Level.WARN, "warning")));
+        warning.start();
+        warning.join(200);
+        Assertions.assertThat(warning.isAlive()).isTrue();
+
+        written.gate.countDown();
+        warning.join(5000);
+        appender.stop();
+
+        Assertions.assertThat(written.messages).containsSubsequence("first", "second", "third", "warning");
+        Assertions.assertThat(written.messages).doesNotContain("dropped");
+        Assertions.assertThat(appender.getDroppedCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void ringBufferAppender_ArgumentChangedAfterLogCall_WritesValueAtCallTime() {
+        Object[] arguments = {"before"};
+        appender.doAppend(new LoggingEvent(RingBufferAppenderTests.class.getName(),
+                loggerContext.getLogger(RingBufferAppenderTests.class), Level.INFO, "value {}", null, arguments));
+        arguments[0] = "after";
+
+        written.gate.countDown();
+        appender.stop();
+
+        Assertions.assertThat(written.messages).containsExactly("first", "value before");
+    }
+
+    private LoggingEvent event(Level level, String message) {
+        return new LoggingEvent(RingBufferAppenderTests.class.getName(),
+                loggerContext.getLogger(RingBufferAppenderTests.class), level, message, null, null);
+    }
+
+    private static class GatedAppender extends AppenderBase<ILoggingEvent> {
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch gate = new CountDownLatch(1);
+        private final List<String> messages = new CopyOnWriteArrayList<>();
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            entered.countDown();
+            try {
+                gate.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            messages.add(event.getFormattedMessage());
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.librarymanagementsystem.repository;
+
+import com.example.librarymanagementsystem.models.Book;
+import com.example.librarymanagementsystem.models.BorrowingRecord;
+import com.example.librarymanagementsystem.models.Patron;
+import com.example.librarymanagementsystem.models.Role;
+import com.example.librarymanagementsystem.repositories.ActiveLoanRepository;
+import com.example.librarymanagementsystem.repositories.BookBorrowingRepository;
+import com.example.librarymanagementsystem.repositories.BookRepository;
+import com.example.librarymanagementsystem.repositories.PatronRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+
+@DataJpaTest
+@TestPropertySource(locations="../../../../test.properties")
+@ContextConfiguration()
+public class ActiveLoanRepositoryTests {
+    private final ActiveLoanRepository activeLoanRepository;
+    private final BookBorrowingRepository bookBorrowingRepository;
+    private final BookRepository bookRepository;
+    private final PatronRepository patronRepository;
+
+    @Autowired
+    public ActiveLoanRepositoryTests(ActiveLoanRepository activeLoanRepository, BookBorrowingRepository bookBorrowingRepository,
+                                     BookRepository bookRepository, PatronRepository patronRepository) {
+        this.activeLoanRepository = activeLoanRepository;
+        this.bookBorrowingRepository = bookBorrowingRepository;
+        this.bookRepository = bookRepository;
+        this.patronRepository = patronRepository;
+    }
+
+    @Test
+    public void activeLoanRepository_CreateFromOpenRecords_CopiesOnlyOpenLoans() {
+        Book book = bookRepository.save(Book.builder().title("title").author("author").build());
+        Patron patron = patronRepository.save(Patron.builder().firstname("first").lastname("last")
+                .email("patron@example.com").password("password").role(Role.USER).build());
+        BorrowingRecord returned = bookBorrowingRepository.save(BorrowingRecord.builder().borrowedBook(book).borrowedBy(patron)
+                .borrowingDate(LocalDateTime.now().minusDays(7)).returnDate(LocalDateTime.now().minusDays(1)).build());
+        BorrowingRecord open = bookBorrowingRepository.saveAndFlush(BorrowingRecord.builder().borrowedBook(book).borrowedBy(patron)
+                .borrowingDate(LocalDateTime.now()).build());
+
+        int created = activeLoanRepository.createFromOpenRecords();
+
+        Assertions.assertThat(created).isEqualTo(1);
+        Assertions.assertThat(activeLoanRepository.findByBookIdAndPatronId(book.getId(), patron.getId()))
+                .hasValueSatisfying(loan -> Assertions.assertThat(loan.getRecordId()).isEqualTo(open.getId()));
+        Assertions.assertThat(activeLoanRepository.existsById(returned.getId())).isFalse();
+    }
+}
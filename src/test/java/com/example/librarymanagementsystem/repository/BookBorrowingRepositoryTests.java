@@ -0,0 +1,70 @@
+package com.example.librarymanagementsystem.repository;
+
+import com.example.librarymanagementsystem.Dto.LoanDto;
+import com.example.librarymanagementsystem.models.Book;
+import com.example.librarymanagementsystem.models.BorrowingRecord;
+import com.example.librarymanagementsystem.models.Patron;
+import com.example.librarymanagementsystem.models.Role;
+import com.example.librarymanagementsystem.repositories.BookBorrowingRepository;
+import com.example.librarymanagementsystem.repositories.BookRepository;
+import com.example.librarymanagementsystem.repositories.PatronRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@DataJpaTest
+@TestPropertySource(locations="../../../../test.properties")
+@ContextConfiguration()
+public class BookBorrowingRepositoryTests {
+    private final BookBorrowingRepository bookBorrowingRepository;
+    private final BookRepository bookRepository;
+    private final PatronRepository patronRepository;
+
+    @Autowired
+    public BookBorrowingRepositoryTests(BookBorrowingRepository bookBorrowingRepository, BookRepository bookRepository,
+                                        PatronRepository patronRepository) {
+        this.bookBorrowingRepository = bookBorrowingRepository;
+        this.bookRepository = bookRepository;
+        this.patronRepository = patronRepository;
+    }
+
+    @Test
+    public void bookBorrowingRepository_FindPatronLoans_PagesNewestFirstByStatus() {
+        Book book = bookRepository.save(Book.builder().title("title").author("author").build());
+        Patron patron = patronRepository.save(Patron.builder().firstname("first").lastname("last")
+                .email("patron@example.com").password("password").role(Role.USER).build());
+        Patron other = patronRepository.save(Patron.builder().firstname("other").lastname("last")
+                .email("other@example.com").password("password").role(Role.USER).build());
+        LocalDateTime now = LocalDateTime.now();
+        BorrowingRecord oldest = save(book, patron, now.minusDays(30), now.minusDays(20));
+        BorrowingRecord older = save(book, patron, now.minusDays(10), now.minusDays(5));
+        BorrowingRecord open = save(book, patron, now.minusDays(1), null);
+        save(book, other, now, null);
+
+        List<LoanDto> firstPage = bookBorrowingRepository.findPatronLoans(patron.getId(), true, true, Limit.of(2));
+        // The cursor comes from the stored row, as in BookBorrowingService.
+        LoanDto cursor = firstPage.get(1);
+        List<LoanDto> secondPage = bookBorrowingRepository.findPatronLoansAfter(patron.getId(), true, true,
+                cursor.getBorrowingDate(), cursor.getId(), Limit.of(2));
+        List<LoanDto> returned = bookBorrowingRepository.findPatronLoans(patron.getId(), false, true, Limit.of(10));
+        List<LoanDto> active = bookBorrowingRepository.findPatronLoans(patron.getId(), true, false, Limit.of(10));
+
+        Assertions.assertThat(firstPage).extracting(LoanDto::getId).containsExactly(open.getId(), older.getId());
+        Assertions.assertThat(secondPage).extracting(LoanDto::getId).containsExactly(oldest.getId());
+        Assertions.assertThat(returned).extracting(LoanDto::getId).containsExactly(older.getId(), oldest.getId());
+        Assertions.assertThat(active).extracting(LoanDto::getId).containsExactly(open.getId());
+        Assertions.assertThat(active.get(0).getBookId()).isEqualTo(book.getId());
+    }
+
+    private BorrowingRecord save(Book book, Patron patron, LocalDateTime borrowed, LocalDateTime returned) {
+        return bookBorrowingRepository.saveAndFlush(BorrowingRecord.builder().borrowedBook(book).borrowedBy(patron)
+                .borrowingDate(borrowed).returnDate(returned).build());
+    }
+}
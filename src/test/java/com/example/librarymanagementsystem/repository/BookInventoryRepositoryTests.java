@@ -0,0 +1,68 @@
+package com.example.librarymanagementsystem.repository;
+
+import com.example.librarymanagementsystem.models.Book;
+import com.example.librarymanagementsystem.models.BookInventory;
+import com.example.librarymanagementsystem.repositories.BookInventoryRepository;
+import com.example.librarymanagementsystem.repositories.BookRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+
+@DataJpaTest
+@TestPropertySource(locations="../../../../test.properties")
+@ContextConfiguration()
+public class BookInventoryRepositoryTests {
+    private final BookInventoryRepository bookInventoryRepository;
+    private final BookRepository bookRepository;
+
+    @Autowired
+    public BookInventoryRepositoryTests(BookInventoryRepository bookInventoryRepository, BookRepository bookRepository) {
+        this.bookInventoryRepository = bookInventoryRepository;
+        this.bookRepository = bookRepository;
+    }
+
+    @Test
+    public void bookInventoryRepository_TakeCopy_StopsAtZeroAvailable() {
+        Book book = bookRepository.save(Book.builder().title("title").author("author").build());
+        bookInventoryRepository.saveAndFlush(BookInventory.builder().bookId(book.getId()).totalCopies(2).availableCopies(2).build());
+
+        int first = bookInventoryRepository.takeCopy(book.getId());
+        int second = bookInventoryRepository.takeCopy(book.getId());
+        int third = bookInventoryRepository.takeCopy(book.getId());
+        int tooManyReturned = bookInventoryRepository.returnCopies(book.getId(), 3);
+        int shrunkBelowLoans = bookInventoryRepository.setTotalCopies(book.getId(), 1);
+
+        Assertions.assertThat(new int[] {first, second, third}).containsExactly(1, 1, 0);
+        Assertions.assertThat(tooManyReturned).isZero();
+        Assertions.assertThat(shrunkBelowLoans).isZero();
+    }
+
+    @Test
+    public void bookInventoryRepository_CreateMissing_GivesEachBookOneCopy() {
+        Book book = bookRepository.saveAndFlush(Book.builder().title("title").author("author").build());
+
+        int created = bookInventoryRepository.createMissing();
+        int createdAgain = bookInventoryRepository.createMissing();
+
+        Assertions.assertThat(created).isEqualTo(1);
+        Assertions.assertThat(createdAgain).isZero();
+        Assertions.assertThat(bookInventoryRepository.findById(book.getId()).get().getAvailableCopies()).isEqualTo(1);
+    }
+
+    @Test
+    public void bookInventoryRepository_CreateMissingFor_CreatesOnlyThatBook() {
+        Book book = bookRepository.saveAndFlush(Book.builder().title("title").author("author").build());
+        Book otherBook = bookRepository.saveAndFlush(Book.builder().title("other").author("author").build());
+
+        int created = bookInventoryRepository.createMissingFor(book.getId());
+        int createdAgain = bookInventoryRepository.createMissingFor(book.getId());
+
+        Assertions.assertThat(created).isEqualTo(1);
+        Assertions.assertThat(createdAgain).isZero();
+        Assertions.assertThat(bookInventoryRepository.existsById(book.getId())).isTrue();
+        Assertions.assertThat(bookInventoryRepository.existsById(otherBook.getId())).isFalse();
+    }
+}
@@ -2,6 +2,7 @@ package com.example.librarymanagementsystem.repository;
 
 import com.example.librarymanagementsystem.models.Book;
 import com.example.librarymanagementsystem.repositories.BookRepository;
+import com.example.librarymanagementsystem.repositories.BookSort;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -85,4 +86,31 @@ public class BookRepositoryTests {
         Assertions.assertThat(bookReturn).isEmpty();
     }
 
-}
\ No newline at end of file
+    @Test
+    public void bookRepository_FindPageAfter_ReturnsNextPageByTitle() {
+        Book first = bookRepository.save(Book.builder().title("A title").author("author").build());
+        Book second = bookRepository.save(Book.builder().title("B title").author("author").build());
+        Book third = bookRepository.save(Book.builder().title("C title").author("author").build());
+        Book untitled = bookRepository.save(Book.builder().author("author").build());
+
+        List<Book> firstPage = bookRepository.findPageAfter(BookSort.TITLE, null, 2);
+        List<Book> secondPage = bookRepository.findPageAfter(BookSort.TITLE, firstPage.get(1), 2);
+
+        Assertions.assertThat(firstPage).extracting(Book::getId).containsExactly(first.getId(), second.getId());
+        Assertions.assertThat(secondPage).extracting(Book::getId).containsExactly(third.getId(), untitled.getId());
+    }
+
+    @Test
+    public void bookRepository_FindByIsbn13_ReturnsBook() {
+        Book book = Book.builder().title("title").author("author")
+                .isbn("978-0-13-595705-9").isbn13("9780135957059").build();
+
+        bookRepository.save(book);
+
+        Optional<Book> bookReturn = bookRepository.findByIsbn13("9780135957059");
+
+        Assertions.assertThat(bookReturn).isPresent();
+        Assertions.assertThat(bookReturn.get().getId()).isEqualTo(book.getId());
+    }
+
+}
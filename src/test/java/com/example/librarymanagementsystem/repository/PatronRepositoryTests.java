@@ -1,5 +1,6 @@
 package com.example.librarymanagementsystem.repository;
 
+import com.example.librarymanagementsystem.Dto.PatronSummaryDto;
 import com.example.librarymanagementsystem.models.Patron;
 import com.example.librarymanagementsystem.models.Role;
 import com.example.librarymanagementsystem.repositories.PatronRepository;
@@ -8,6 +9,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.jdbc.EmbeddedDatabaseConnection;
+import org.springframework.data.domain.Limit;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -154,5 +156,22 @@ public class PatronRepositoryTests {
         Assertions.assertThat(patronReturn).isEmpty();
     }
 
-
-}
\ No newline at end of file
+    @Test
+    public void PatronRepository_FindSummariesAfter_ReturnKeysetPageMatchingEmailPrefix() {
+        Patron first = patronRepository.save(Patron.builder().firstname("Anna").lastname("Adams")
+                .email("anna.adams@example.com").password("12345").role(Role.USER).build());
+        patronRepository.save(Patron.builder().firstname("Bob").lastname("Brown")
+                .email("bob.brown@example.com").password("12345").role(Role.USER).build());
+        Patron second = patronRepository.save(Patron.builder().firstname("Anna").lastname("Baker")
+                .email("anna.baker@example.com").password("12345").role(Role.USER).build());
+
+        List<PatronSummaryDto> firstPage = patronRepository.findSummariesAfter(0, "anna%", Limit.of(1));
+        List<PatronSummaryDto> secondPage = patronRepository.findSummariesAfter(
+                firstPage.get(0).getId(), "anna%", Limit.of(10));
+
+        Assertions.assertThat(firstPage).extracting(PatronSummaryDto::getId).containsExactly(first.getId());
+        Assertions.assertThat(secondPage).extracting(PatronSummaryDto::getId).containsExactly(second.getId());
+        Assertions.assertThat(secondPage.get(0).getEmail()).isEqualTo("anna.baker@example.com");
+        Assertions.assertThat(patronRepository.findSummariesAfter(0, null, Limit.of(10))).hasSize(3);
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.librarymanagementsystem.service;
+
+import com.example.librarymanagementsystem.Dto.BatchItemResultDto;
+import com.example.librarymanagementsystem.Dto.LoanRequestDto;
+import com.example.librarymanagementsystem.events.OutboxPublisher;
+import com.example.librarymanagementsystem.models.ActiveLoan;
+import com.example.librarymanagementsystem.models.Book;
+import com.example.librarymanagementsystem.models.BookInventory;
+import com.example.librarymanagementsystem.models.Patron;
+import com.example.librarymanagementsystem.models.Role;
+import com.example.librarymanagementsystem.repositories.ActiveLoanRepository;
+import com.example.librarymanagementsystem.repositories.BookBorrowingRepository;
+import com.example.librarymanagementsystem.repositories.BookInventoryRepository;
+import com.example.librarymanagementsystem.repositories.BookRepository;
+import com.example.librarymanagementsystem.repositories.PatronRepository;
+import com.example.librarymanagementsystem.services.BookBorrowingService;
+import com.example.librarymanagementsystem.services.CirculationStatsService;
+import com.example.librarymanagementsystem.services.LoanPolicy;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+
+@DataJpaTest
+@TestPropertySource(locations = "../../../../test.properties")
+@ContextConfiguration()
+@Import({BookBorrowingService.class, LoanPolicy.class, JacksonAutoConfiguration.class})
+public class BookBorrowingServiceTests {
+    private final BookBorrowingService bookBorrowingService;
+    private final BookRepository bookRepository;
+    private final PatronRepository patronRepository;
+    private final BookBorrowingRepository bookBorrowingRepository;
+    private final TestEntityManager testEntityManager;
+
+    @SpyBean
+    private BookInventoryRepository bookInventoryRepository;
+
+    @SpyBean
+    private ActiveLoanRepository activeLoanRepository;
+
+    @MockBean
+    private CirculationStatsService circulationStatsService;
+
+    @MockBean
+    private OutboxPublisher outboxPublisher;
+
+    @Autowired
+    public BookBorrowingServiceTests(BookBorrowingService bookBorrowingService, BookRepository bookRepository,
+                                     PatronRepository patronRepository,
+                                     BookBorrowingRepository bookBorrowingRepository,
+                                     TestEntityManager testEntityManager) {
+        this.bookBorrowingService = bookBorrowingService;
+        this.bookRepository = bookRepository;
+        this.patronRepository = patronRepository;
+        this.bookBorrowingRepository = bookBorrowingRepository;
+        this.testEntityManager = testEntityManager;
+    }
+
+    // Two concurrent borrows of one book by one patron can both pass the conditional update before
+    // either commits; the second then fails on the active loan's unique key and must get a 400.
+    @Test
+    public void borrowBook_ConcurrentDuplicateLoan_ThrowsIllegalState() {
+        Long bookId = bookRepository.save(Book.builder().title("title").author("author").build()).getId();
+        bookInventoryRepository.save(BookInventory.builder().bookId(bookId).totalCopies(2).availableCopies(2).build());
+        Long patronId = patronRepository.save(Patron.builder().firstname("Ann").lastname("Reader")
+                .email("reader@example.com").password("secret").role(Role.USER).build()).getId();
+        bookBorrowingService.borrowBook(bookId, patronId);
+
+        // The second borrow's check ran before the first loan was visible.
+        Mockito.doReturn(1).when(bookInventoryRepository)
+                .takeCopyFor(ArgumentMatchers.eq(bookId), ArgumentMatchers.eq(patronId));
+
+        Assertions.assertThatThrownBy(() -> bookBorrowingService.borrowBook(bookId, patronId))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Book has not been returned yet.");
+    }
+
+    // The batch loaded the open loans before a concurrent borrow of the same book committed its loan:
+    // only that item is refused, and its record and copy are undone.
+    @Test
+    public void borrowBooks_ConcurrentDuplicateLoan_OnlyThatItemRefused() {
+        Long bookId = book(2);
+        Long otherBookId = book(1);
+        Long patronId = patronRepository.save(Patron.builder().firstname("Ann").lastname("Reader")
+                .email("reader@example.com").password("secret").role(Role.USER).build()).getId();
+        bookBorrowingService.borrowBook(bookId, patronId);
+        long records = bookBorrowingRepository.count();
+        List<ActiveLoan> openLoans = activeLoanRepository.findOpenLoans(List.of(bookId), List.of(patronId));
+
+        // The open loan was not there yet when the batch first looked.
+        Mockito.doReturn(List.of()).doReturn(openLoans).when(activeLoanRepository)
+                .findOpenLoans(ArgumentMatchers.anyCollection(), ArgumentMatchers.anyCollection());
+
+        List<BatchItemResultDto> results = bookBorrowingService.borrowBooks(List.of(
+                new LoanRequestDto(bookId, patronId), new LoanRequestDto(otherBookId, patronId)));
+
+        Assertions.assertThat(results).extracting(BatchItemResultDto::getStatus).containsExactly(400, 201);
+        Assertions.assertThat(results.get(0).getMessage()).isEqualTo("Book has not been returned yet.");
+        Assertions.assertThat(results.get(0).getRecordId()).isNull();
+        Assertions.assertThat(bookBorrowingRepository.count()).isEqualTo(records + 1);
+        testEntityManager.clear();
+        Assertions.assertThat(bookInventoryRepository.findById(bookId).orElseThrow().getAvailableCopies()).isEqualTo(1);
+    }
+
+    private Long book(int copies) {
+        Long bookId = bookRepository.save(Book.builder().title("title").author("author").build()).getId();
+        bookInventoryRepository.save(BookInventory.builder().bookId(bookId).totalCopies(copies).availableCopies(copies).build());
+        return bookId;
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.librarymanagementsystem.service;
+
+import com.example.librarymanagementsystem.Dto.BookImportReportDto;
+import com.example.librarymanagementsystem.events.OutboxPublisher;
+import com.example.librarymanagementsystem.repositories.BookInventoryRepository;
+import com.example.librarymanagementsystem.repositories.BookRepository;
+import com.example.librarymanagementsystem.repositories.OutboxEventRepository;
+import com.example.librarymanagementsystem.services.BookImportFormat;
+import com.example.librarymanagementsystem.services.BookImportService;
+import com.example.librarymanagementsystem.services.BookSearchIndex;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.assertj.core.api.Assertions;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+// Each batch commits on its own, so the test itself does not run in a transaction.
+@DataJpaTest
+@TestPropertySource(locations = "../../../../test.properties", properties = "library.import.batch-size=2")
+@ContextConfiguration()
+@Import({BookImportService.class, BookSearchIndex.class, OutboxPublisher.class, JacksonAutoConfiguration.class,
+        ValidationAutoConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class BookImportServiceTests {
+    private final BookImportService bookImportService;
+    private final BookSearchIndex bookSearchIndex;
+    private final BookRepository bookRepository;
+    private final BookInventoryRepository bookInventoryRepository;
+    private final OutboxEventRepository outboxEventRepository;
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    public BookImportServiceTests(BookImportService bookImportService, BookSearchIndex bookSearchIndex,
+                                  BookRepository bookRepository, BookInventoryRepository bookInventoryRepository,
+                                  OutboxEventRepository outboxEventRepository,
+                                  EntityManagerFactory entityManagerFactory) {
+        this.bookImportService = bookImportService;
+        this.bookSearchIndex = bookSearchIndex;
+        this.bookRepository = bookRepository;
+        this.bookInventoryRepository = bookInventoryRepository;
+        this.outboxEventRepository = outboxEventRepository;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @AfterEach
+    public void tearDown() {
+        bookInventoryRepository.deleteAll();
+        bookRepository.deleteAll();
+        outboxEventRepository.deleteAll();
+        bookSearchIndex.clear();
+    }
+
+    // Binds one persistence context to the thread for the whole import, as open-in-view does for a request.
+    @Test
+    public void importBooks_SeveralBatchesInOneRequest_PersistenceContextStaysEmpty() throws IOException {
+        String csv = "title,author,isbn\n"
+                + "Dune,Herbert,9780441013593\n"
+                + "Emma,Austen,\n"
+                + "Ulysses,Joyce,\n"
+                + "Beloved,Morrison,\n"
+                + "Dune again,Herbert,9780441013593\n";
+        EntityManager requestEntityManager = entityManagerFactory.createEntityManager();
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(requestEntityManager));
+        try {
+            BookImportReportDto report = bookImportService.importBooks(
+                    new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), BookImportFormat.CSV);
+
+            Assertions.assertThat(report.getImported()).isEqualTo(4);
+            Assertions.assertThat(report.getRejected()).isEqualTo(1);
+            Assertions.assertThat(requestEntityManager.unwrap(Session.class).getStatistics().getEntityCount())
+                    .isZero();
+        } finally {
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            requestEntityManager.close();
+        }
+        Assertions.assertThat(bookRepository.count()).isEqualTo(4);
+        Assertions.assertThat(bookInventoryRepository.count()).isEqualTo(4);
+    }
+}
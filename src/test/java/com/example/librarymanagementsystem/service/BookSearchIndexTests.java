@@ -0,0 +1,116 @@
+package com.example.librarymanagementsystem.service;
+
+import com.example.librarymanagementsystem.Dto.BookSearchHitDto;
+import com.example.librarymanagementsystem.models.Book;
+import com.example.librarymanagementsystem.services.BookSearchIndex;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class BookSearchIndexTests {
+
+    private BookSearchIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        index = new BookSearchIndex();
+        index.index(Book.builder().id(1L).title("The Pragmatic Programmer").author("Andrew Hunt").isbn("978-0135957059")
+                .isbn13("9780135957059").build());
+        index.index(Book.builder().id(2L).title("Programming Pearls").author("Jon Bentley").build());
+        index.index(Book.builder().id(3L).title("Clean Code").author("Robert Martin").build());
+    }
+
+    @Test
+    public void bookSearchIndex_Search_RanksTitleMatchesAndMatchesPrefix() {
+        List<BookSearchHitDto> hits = index.search("program", null, null, 10);
+
+        Assertions.assertThat(hits).extracting(BookSearchHitDto::getId).containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    @Test
+    public void bookSearchIndex_Search_RequiresAllTokens() {
+        List<BookSearchHitDto> hits = index.search("pragmatic pro", null, null, 10);
+
+        Assertions.assertThat(hits).extracting(BookSearchHitDto::getId).containsExactly(1L);
+    }
+
+    @Test
+    public void bookSearchIndex_Search_FindsByIsbnAndAuthorFilter() {
+        Assertions.assertThat(index.search("9780135957059", null, null, 10))
+                .extracting(BookSearchHitDto::getId).containsExactly(1L);
+        Assertions.assertThat(index.search("0-13-595705-2", null, null, 10))
+                .extracting(BookSearchHitDto::getId).containsExactly(1L);
+        Assertions.assertThat(index.findIdByIsbn13("9780135957059")).isEqualTo(1L);
+        Assertions.assertThat(index.search(null, "bentley", null, 10))
+                .extracting(BookSearchHitDto::getId).containsExactly(2L);
+    }
+
+    @Test
+    public void bookSearchIndex_SearchWithoutQuery_UsesAuthorAndYearFilters() {
+        index.index(Book.builder().id(4L).title("Refactoring").author("Martin Fowler")
+                .publication_year(java.sql.Date.valueOf("1999-07-08")).build());
+
+        Assertions.assertThat(index.search(null, "mart", null, 10))
+                .extracting(BookSearchHitDto::getId).containsExactly(3L, 4L);
+        Assertions.assertThat(index.search(null, "martin fow", null, 10))
+                .extracting(BookSearchHitDto::getId).containsExactly(4L);
+        Assertions.assertThat(index.search(null, "artin", null, 10)).isEmpty();
+        Assertions.assertThat(index.search(null, null, 1999, 10))
+                .extracting(BookSearchHitDto::getId).containsExactly(4L);
+        Assertions.assertThat(index.search("clean", "martin", 1999, 10)).isEmpty();
+    }
+
+    @Test
+    public void bookSearchIndex_SearchWithoutQueryOrFilter_Rejected() {
+        Assertions.assertThatThrownBy(() -> index.search(" ", null, null, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void bookSearchIndex_Search_KeepsBestHitsUpToLimit() {
+        List<BookSearchHitDto> all = index.search("pro", null, null, 10);
+
+        Assertions.assertThat(all).extracting(BookSearchHitDto::getId).containsExactly(2L, 1L);
+        Assertions.assertThat(index.search("pro", null, null, 1)).containsExactly(all.get(0));
+    }
+
+    @Test
+    public void bookSearchIndex_PrefixOfManyWords_EveryMatchKeptAndShortPrefixExactOnly() {
+        // 100 distinct words starting with "pro", besides "programmer" and "programming".
+        for (long id = 10; id < 110; id++) {
+            index.index(Book.builder().id(id).title("Pro" + id).author("Author").build());
+        }
+        index.index(Book.builder().id(201L).title("Pr").author("Author").build());
+
+        Assertions.assertThat(index.search("pro", null, null, 200)).hasSize(102);
+        Assertions.assertThat(index.search("pr", null, null, 200))
+                .extracting(BookSearchHitDto::getId).containsExactly(201L);
+    }
+
+    // The rebuild read the book's row before it was deleted, and reaches it only after the removal.
+    @Test
+    public void bookSearchIndex_RemovedDuringRebuild_NotIndexedAgain() {
+        Book book = Book.builder().id(5L).title("Dune").author("Frank Herbert").isbn("9780441013593")
+                .isbn13("9780441013593").build();
+        index.startRebuild();
+        index.remove(5L);
+        index.indexIfAbsent(book);
+        index.finishRebuild();
+
+        Assertions.assertThat(index.search("dune", null, null, 10)).isEmpty();
+        Assertions.assertThat(index.findIdByIsbn13("9780441013593")).isNull();
+    }
+
+    @Test
+    public void bookSearchIndex_UpdateAndRemove_ReplacesPostings() {
+        index.index(Book.builder().id(3L).title("Refactoring").author("Martin Fowler").build());
+        index.remove(2L);
+
+        Assertions.assertThat(index.search("clean", null, null, 10)).isEmpty();
+        Assertions.assertThat(index.search("pearls", null, null, 10)).isEmpty();
+        Assertions.assertThat(index.search("refactoring", null, null, 10))
+                .extracting(BookSearchHitDto::getId).containsExactly(3L);
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.librarymanagementsystem.service;
+
+import com.example.librarymanagementsystem.Dto.BookUpdateDto;
+import com.example.librarymanagementsystem.config.CacheConfig;
+import com.example.librarymanagementsystem.events.OutboxPublisher;
+import com.example.librarymanagementsystem.models.Book;
+import com.example.librarymanagementsystem.models.BorrowingRecord;
+import com.example.librarymanagementsystem.models.Patron;
+import com.example.librarymanagementsystem.models.Role;
+import com.example.librarymanagementsystem.repositories.BookBorrowingRepository;
+import com.example.librarymanagementsystem.repositories.BookInventoryRepository;
+import com.example.librarymanagementsystem.repositories.BookRepository;
+import com.example.librarymanagementsystem.repositories.OutboxEventRepository;
+import com.example.librarymanagementsystem.repositories.PatronRepository;
+import com.example.librarymanagementsystem.services.BookInventoryService;
+import com.example.librarymanagementsystem.services.BookSearchIndex;
+import com.example.librarymanagementsystem.services.BookService;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+// Commits and rollbacks are the point here, so the test itself does not run in a transaction.
+@DataJpaTest
+@TestPropertySource(locations = "../../../../test.properties")
+@ContextConfiguration()
+@Import({BookService.class, BookSearchIndex.class, BookInventoryService.class, OutboxPublisher.class,
+        CacheConfig.class, JacksonAutoConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class BookServiceTests {
+    private final BookService bookService;
+    private final BookSearchIndex bookSearchIndex;
+    private final BookRepository bookRepository;
+    private final BookInventoryRepository bookInventoryRepository;
+    private final BookBorrowingRepository bookBorrowingRepository;
+    private final PatronRepository patronRepository;
+    private final OutboxEventRepository outboxEventRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final CacheManager cacheManager;
+
+    @Autowired
+    public BookServiceTests(BookService bookService, BookSearchIndex bookSearchIndex, BookRepository bookRepository,
+                            BookInventoryRepository bookInventoryRepository,
+                            BookBorrowingRepository bookBorrowingRepository, PatronRepository patronRepository,
+                            OutboxEventRepository outboxEventRepository, PlatformTransactionManager transactionManager,
+                            CacheManager cacheManager) {
+        this.bookService = bookService;
+        this.bookSearchIndex = bookSearchIndex;
+        this.bookRepository = bookRepository;
+        this.bookInventoryRepository = bookInventoryRepository;
+        this.bookBorrowingRepository = bookBorrowingRepository;
+        this.patronRepository = patronRepository;
+        this.outboxEventRepository = outboxEventRepository;
+        this.transactionManager = transactionManager;
+        this.cacheManager = cacheManager;
+    }
+
+    @AfterEach
+    public void tearDown() {
+        bookBorrowingRepository.deleteAll();
+        bookInventoryRepository.deleteAll();
+        bookRepository.deleteAll();
+        patronRepository.deleteAll();
+        outboxEventRepository.deleteAll();
+        bookSearchIndex.clear();
+        cacheManager.getCache(CacheConfig.BOOKS_CACHE).clear();
+    }
+
+    @Test
+    public void save_Committed_Indexed() {
+        Book book = bookService.save(Book.builder().title("Dune").author("Herbert").isbn("9780441013593").build());
+
+        Assertions.assertThat(bookSearchIndex.search("dune", null, null, 10)).hasSize(1);
+        Assertions.assertThat(bookSearchIndex.findIdByIsbn13("9780441013593")).isEqualTo(book.getId());
+    }
+
+    @Test
+    public void save_RolledBack_NotIndexed() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            bookService.save(Book.builder().title("Dune").author("Herbert").isbn("9780441013593").build());
+            status.setRollbackOnly();
+        });
+
+        Assertions.assertThat(bookSearchIndex.search("dune", null, null, 10)).isEmpty();
+        Assertions.assertThat(bookSearchIndex.findIdByIsbn13("9780441013593")).isNull();
+    }
+
+    @Test
+    public void deleteById_BorrowingHistory_StaysIndexed() {
+        Book book = bookService.save(Book.builder().title("Dune").author("Herbert").isbn("9780441013593").build());
+        Patron patron = patronRepository.save(Patron.builder().firstname("Ann").lastname("Reader")
+                .email("reader@example.com").password("secret").role(Role.USER).build());
+        bookBorrowingRepository.save(BorrowingRecord.builder().borrowedBook(book).borrowedBy(patron)
+                .borrowingDate(LocalDateTime.now()).returnDate(LocalDateTime.now()).build());
+
+        Assertions.assertThatThrownBy(() -> bookService.deleteById(book.getId()))
+                .isInstanceOf(DataIntegrityViolationException.class);
+
+        Assertions.assertThat(bookRepository.existsById(book.getId())).isTrue();
+        Assertions.assertThat(bookSearchIndex.search("dune", null, null, 10)).hasSize(1);
+        Assertions.assertThat(bookSearchIndex.findIdByIsbn13("9780441013593")).isEqualTo(book.getId());
+    }
+
+    // Legacy rows were stored with only the raw ISBN; two of them share one.
+    @Test
+    public void backfillIsbn13_LegacyRows_FilledAndDuplicateLeftEmpty() {
+        Long first = bookRepository.save(Book.builder().title("Dune").author("Herbert").isbn("0-441-01359-7").build()).getId();
+        Long second = bookRepository.save(Book.builder().title("Dune").author("Herbert").isbn("978-0441013593").build()).getId();
+        Long invalid = bookRepository.save(Book.builder().title("Emma").author("Austen").isbn("0441013591").build()).getId();
+
+        bookService.backfillIsbn13();
+
+        Assertions.assertThat(bookRepository.findById(first).orElseThrow().getIsbn13()).isEqualTo("9780441013593");
+        Assertions.assertThat(bookRepository.findById(second).orElseThrow().getIsbn13()).isNull();
+        Assertions.assertThat(bookRepository.findById(invalid).orElseThrow().getIsbn13()).isNull();
+        Assertions.assertThat(bookService.findIdByIsbn("9780441013593")).isEqualTo(first);
+        Assertions.assertThatThrownBy(() -> bookService.save(Book.builder().title("Dune").author("Herbert")
+                        .isbn("9780441013593").build()))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    @Test
+    public void updateBook_RolledBack_CachedBookUnchanged() {
+        Long id = bookService.save(Book.builder().title("Dune").author("Herbert").build()).getId();
+        bookService.findById(id);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            bookService.updateBook(id, BookUpdateDto.builder().title("Uncommitted").build());
+            status.setRollbackOnly();
+        });
+
+        Book cached = cacheManager.getCache(CacheConfig.BOOKS_CACHE).get(id, Book.class);
+        Assertions.assertThat(cached).isNotNull();
+        Assertions.assertThat(cached.getTitle()).isEqualTo("Dune");
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.librarymanagementsystem.service;
+
+import com.example.librarymanagementsystem.Dto.DailyCirculationDto;
+import com.example.librarymanagementsystem.Dto.PopularBookDto;
+import com.example.librarymanagementsystem.models.ActiveLoan;
+import com.example.librarymanagementsystem.models.Book;
+import com.example.librarymanagementsystem.models.BorrowingRecord;
+import com.example.librarymanagementsystem.models.Patron;
+import com.example.librarymanagementsystem.models.Role;
+import com.example.librarymanagementsystem.repositories.ActiveLoanRepository;
+import com.example.librarymanagementsystem.repositories.BookBorrowingRepository;
+import com.example.librarymanagementsystem.repositories.BookRepository;
+import com.example.librarymanagementsystem.repositories.PatronRepository;
+import com.example.librarymanagementsystem.services.CirculationStatsService;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@DataJpaTest
+@TestPropertySource(locations = "../../../../test.properties")
+@ContextConfiguration()
+@Import(CirculationStatsService.class)
+public class CirculationStatsServiceTests {
+    private final CirculationStatsService circulationStatsService;
+    private final BookBorrowingRepository bookBorrowingRepository;
+    private final ActiveLoanRepository activeLoanRepository;
+    private final BookRepository bookRepository;
+    private final PatronRepository patronRepository;
+
+    @Autowired
+    public CirculationStatsServiceTests(CirculationStatsService circulationStatsService,
+                                        BookBorrowingRepository bookBorrowingRepository,
+                                        ActiveLoanRepository activeLoanRepository,
+                                        BookRepository bookRepository, PatronRepository patronRepository) {
+        this.circulationStatsService = circulationStatsService;
+        this.bookBorrowingRepository = bookBorrowingRepository;
+        this.activeLoanRepository = activeLoanRepository;
+        this.bookRepository = bookRepository;
+        this.patronRepository = patronRepository;
+    }
+
+    @Test
+    public void circulationStatsService_Initialize_ComputesStatisticsFromHistory() {
+        Book popular = bookRepository.save(Book.builder().title("popular").author("author").build());
+        Book other = bookRepository.save(Book.builder().title("other").author("author").build());
+        Patron patron = patronRepository.save(Patron.builder().firstname("first").lastname("last")
+                .email("patron@example.com").password("password").role(Role.USER).build());
+        LocalDateTime today = LocalDate.now().atTime(9, 0);
+        save(popular, patron, today.minusDays(2), today.minusDays(1));
+        save(popular, patron, today.minusDays(1), today);
+        save(other, patron, today.minusDays(1), today);
+        BorrowingRecord open = save(popular, patron, today, null);
+        activeLoanRepository.saveAndFlush(ActiveLoan.builder().recordId(open.getId()).bookId(popular.getId())
+                .patronId(patron.getId()).borrowingDate(today).build());
+
+        circulationStatsService.initialize();
+
+        Assertions.assertThat(circulationStatsService.getPopularBooks(10))
+                .extracting(PopularBookDto::getTitle, PopularBookDto::getBorrows)
+                .containsExactly(Assertions.tuple("popular", 3L), Assertions.tuple("other", 1L));
+        Assertions.assertThat(circulationStatsService.getPopularBooks(1)).hasSize(1);
+        Assertions.assertThat(circulationStatsService.getPatronStats(patron.getId()).getActiveLoans()).isEqualTo(1);
+        List<DailyCirculationDto> days = circulationStatsService.getDailyStats(3);
+        Assertions.assertThat(days).extracting(DailyCirculationDto::getBorrows).containsExactly(1L, 2L, 1L);
+        Assertions.assertThat(days).extracting(DailyCirculationDto::getReturns).containsExactly(0L, 1L, 2L);
+    }
+
+    private BorrowingRecord save(Book book, Patron patron, LocalDateTime borrowed, LocalDateTime returned) {
+        return bookBorrowingRepository.saveAndFlush(BorrowingRecord.builder().borrowedBook(book).borrowedBy(patron)
+                .borrowingDate(borrowed).returnDate(returned).build());
+    }
+}
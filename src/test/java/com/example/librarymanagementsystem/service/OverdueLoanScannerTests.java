@@ -0,0 +1,90 @@
+package com.example.librarymanagementsystem.service;
+
+import com.example.librarymanagementsystem.events.EventType;
+import com.example.librarymanagementsystem.events.OutboxPublisher;
+import com.example.librarymanagementsystem.models.ActiveLoan;
+import com.example.librarymanagementsystem.models.OutboxEvent;
+import com.example.librarymanagementsystem.repositories.ActiveLoanRepository;
+import com.example.librarymanagementsystem.repositories.JobWatermarkRepository;
+import com.example.librarymanagementsystem.repositories.OutboxEventRepository;
+import com.example.librarymanagementsystem.services.LoanPolicy;
+import com.example.librarymanagementsystem.services.OverdueLoanScanner;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+
+@DataJpaTest
+@TestPropertySource(locations = "../../../../test.properties",
+        properties = "library.loans.overdue-scan.batch-size=2")
+@ContextConfiguration()
+@Import({OverdueLoanScanner.class, LoanPolicy.class, OutboxPublisher.class, JacksonAutoConfiguration.class})
+public class OverdueLoanScannerTests {
+    private final OverdueLoanScanner overdueLoanScanner;
+    private final ActiveLoanRepository activeLoanRepository;
+    private final OutboxEventRepository outboxEventRepository;
+    private final JobWatermarkRepository jobWatermarkRepository;
+
+    @Autowired
+    public OverdueLoanScannerTests(OverdueLoanScanner overdueLoanScanner, ActiveLoanRepository activeLoanRepository,
+                                   OutboxEventRepository outboxEventRepository, JobWatermarkRepository jobWatermarkRepository) {
+        this.overdueLoanScanner = overdueLoanScanner;
+        this.activeLoanRepository = activeLoanRepository;
+        this.outboxEventRepository = outboxEventRepository;
+        this.jobWatermarkRepository = jobWatermarkRepository;
+    }
+
+    @Test
+    public void overdueLoanScanner_Scan_ReportsEachLoanOnceWhenItBecomesOverdue() {
+        LocalDateTime now = LocalDateTime.of(2024, 3, 1, 2, 0);
+        save(1L, now.minusDays(3));
+        save(2L, now.minusDays(2));
+        save(3L, now.minusDays(1));
+        save(4L, now.plusDays(1));
+        save(5L, null);
+
+        int first = overdueLoanScanner.scan(now);
+        int again = overdueLoanScanner.scan(now);
+        int nextNight = overdueLoanScanner.scan(now.plusDays(1));
+
+        Assertions.assertThat(first).isEqualTo(3);
+        Assertions.assertThat(again).isZero();
+        Assertions.assertThat(nextNight).isEqualTo(1);
+        Assertions.assertThat(outboxEventRepository.findAll())
+                .extracting(OutboxEvent::getAggregateId).containsExactlyInAnyOrder(1L, 2L, 3L, 4L);
+        Assertions.assertThat(outboxEventRepository.findAll()).allSatisfy(event -> {
+            Assertions.assertThat(event.getType()).isEqualTo(EventType.LOAN_OVERDUE.name());
+            Assertions.assertThat(event.getPayload()).contains("\"finePerDay\":0.5");
+        });
+        Assertions.assertThat(jobWatermarkRepository.findById(OverdueLoanScanner.JOB_NAME))
+                .hasValueSatisfying(watermark -> Assertions.assertThat(watermark.getLastRecordId()).isEqualTo(4L));
+    }
+
+    // A loan can fall due behind the watermark, e.g. after library.loans.period-days was lowered.
+    @Test
+    public void overdueLoanScanner_LoanDueBehindWatermark_ReportedOnce() {
+        LocalDateTime now = LocalDateTime.of(2024, 3, 1, 2, 0);
+        save(1L, now.minusDays(1));
+        Assertions.assertThat(overdueLoanScanner.scan(now)).isEqualTo(1);
+
+        save(2L, now.minusDays(5));
+
+        Assertions.assertThat(overdueLoanScanner.scan(now)).isEqualTo(1);
+        Assertions.assertThat(overdueLoanScanner.scan(now)).isZero();
+        Assertions.assertThat(outboxEventRepository.findAll())
+                .extracting(OutboxEvent::getAggregateId).containsExactlyInAnyOrder(1L, 2L);
+        Assertions.assertThat(jobWatermarkRepository.findById(OverdueLoanScanner.JOB_NAME))
+                .hasValueSatisfying(watermark -> Assertions.assertThat(watermark.getLastRecordId()).isEqualTo(1L));
+    }
+
+    private void save(Long recordId, LocalDateTime dueDate) {
+        activeLoanRepository.save(ActiveLoan.builder().recordId(recordId).bookId(recordId).patronId(1L)
+                .borrowingDate(LocalDateTime.of(2024, 1, 1, 0, 0)).dueDate(dueDate).build());
+    }
+}
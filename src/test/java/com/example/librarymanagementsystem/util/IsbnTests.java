@@ -0,0 +1,21 @@
+package com.example.librarymanagementsystem.util;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class IsbnTests {
+
+    @Test
+    public void isbn_ToIsbn13_ConvertsIsbn10AndStripsSeparators() {
+        Assertions.assertThat(Isbn.toIsbn13("0-13-595705-2")).isEqualTo("9780135957059");
+        Assertions.assertThat(Isbn.toIsbn13("978-0-13-595705-9")).isEqualTo("9780135957059");
+        Assertions.assertThat(Isbn.toIsbn13("080442957X")).isEqualTo("9780804429573");
+    }
+
+    @Test
+    public void isbn_ToIsbn13_RejectsInvalidCheckDigit() {
+        Assertions.assertThatThrownBy(() -> Isbn.toIsbn13("978-0-13-595705-1"))
+                .isInstanceOf(IllegalArgumentException.class);
+        Assertions.assertThat(Isbn.tryToIsbn13("0135957051")).isNull();
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.librarymanagementsystem.util;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class MpscRingBufferTests {
+
+    @Test
+    public void mpscRingBuffer_Offer_RejectsWhenFullAndKeepsOrder() {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            Assertions.assertThat(buffer.offer(i)).isTrue();
+        }
+        Assertions.assertThat(buffer.offer(4)).isFalse();
+
+        Assertions.assertThat(buffer.poll()).isEqualTo(0);
+        Assertions.assertThat(buffer.offer(4)).isTrue();
+        List<Integer> drained = new ArrayList<>();
+        for (Integer element; (element = buffer.poll()) != null; ) {
+            drained.add(element);
+        }
+        Assertions.assertThat(drained).containsExactly(1, 2, 3, 4);
+        Assertions.assertThat(buffer.isEmpty()).isTrue();
+    }
+
+    @Test
+    public void mpscRingBuffer_ConcurrentProducers_EveryAcceptedElementIsPolledOnce() throws InterruptedException {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(1024);
+        int producers = 4;
+        int perProducer = 50_000;
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    while (!buffer.offer(base + i)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+
+        boolean[] seen = new boolean[producers * perProducer];
+        int received = 0;
+        while (received < seen.length) {
+            Integer element = buffer.poll();
+            if (element == null) {
+                Thread.onSpinWait();
+                continue;
+            }
+            Assertions.assertThat(seen[element]).isFalse();
+            seen[element] = true;
+            received++;
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assertions.assertThat(buffer.poll()).isNull();
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.librarymanagementsystem.util;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+public class TopKTests {
+
+    @Test
+    public void topK_Offer_EvictsSmallestAndBreaksTiesByKey() {
+        TopK<Long> topK = new TopK<>(2);
+        topK.offer(1L, 5);
+        topK.offer(2L, 3);
+        topK.offer(3L, 3);
+        Assertions.assertThat(topK.offer(4L, 1)).isFalse();
+
+        Assertions.assertThat(topK.entries()).containsExactly(new TopK.Entry<>(1L, 5), new TopK.Entry<>(2L, 3));
+
+        Assertions.assertThat(topK.offer(3L, 6)).isTrue();
+        Assertions.assertThat(topK.entries()).containsExactly(new TopK.Entry<>(3L, 6), new TopK.Entry<>(1L, 5));
+    }
+
+    @Test
+    public void topK_GrowingCounts_MatchesFullSort() {
+        TopK<Long> topK = new TopK<>(10);
+        Map<Long, Long> totals = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            long key = (long) Math.abs(random.nextGaussian() * 50);
+            long total = totals.merge(key, (long) random.nextInt(3) + 1, Long::sum);
+            topK.offer(key, total);
+        }
+
+        List<TopK.Entry<Long>> expected = totals.entrySet().stream()
+                .map(entry -> new TopK.Entry<>(entry.getKey(), entry.getValue()))
+                .sorted((a, b) -> a.count() != b.count() ? Long.compare(b.count(), a.count()) : a.key().compareTo(b.key()))
+                .limit(10)
+                .collect(Collectors.toList());
+        Assertions.assertThat(topK.entries()).isEqualTo(expected);
+    }
+}